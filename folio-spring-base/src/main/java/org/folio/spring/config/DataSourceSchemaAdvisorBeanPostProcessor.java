@@ -1,23 +1,32 @@
 package org.folio.spring.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
 import javax.sql.DataSource;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.folio.spring.FolioExecutionContext;
 import org.folio.spring.FolioModuleMetadata;
 import org.folio.spring.config.properties.FolioDatabaseEnvs;
 import org.jspecify.annotations.NonNull;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
 @Log4j2
-public class DataSourceSchemaAdvisorBeanPostProcessor implements BeanPostProcessor {
+public class DataSourceSchemaAdvisorBeanPostProcessor implements BeanPostProcessor, DisposableBean {
 
   public static final String DATASOURCE_BEAN_NAME = "dataSource";
 
+  private static final Pattern JDBC_URL_PATTERN = Pattern.compile("(jdbc:postgresql://)[^/:?]+(:\\d+)?(.*)");
+
   private final FolioModuleMetadata moduleMetadata;
   private final FolioExecutionContext folioExecutionContext;
+  private final List<HikariDataSource> readerPools = new CopyOnWriteArrayList<>();
 
   public DataSourceSchemaAdvisorBeanPostProcessor(FolioExecutionContext folioExecutionContext,
     FolioModuleMetadata moduleMetadata) {
@@ -42,7 +51,11 @@ public class DataSourceSchemaAdvisorBeanPostProcessor implements BeanPostProcess
       } else {
         dataSource = (DataSource) bean;
       }
-      return new DataSourceFolioWrapper(dataSource, folioExecutionContext);
+      var folioDataSource = new DataSourceFolioWrapper(dataSource, folioExecutionContext);
+      return FolioDatabaseEnvs.DB_HOST_READER.findString()
+        .filter(StringUtils::isNotBlank)
+        .map(readerHost -> withReader(folioDataSource, dataSource, readerHost))
+        .orElse(folioDataSource);
     } else {
       return bean;
     }
@@ -88,6 +101,55 @@ public class DataSourceSchemaAdvisorBeanPostProcessor implements BeanPostProcess
     return bean;
   }
 
+  /**
+   * Close the reader pools. The data source bean is destroyed as the bean it was before post-processing, so its
+   * destroy callback closes the primary pool only.
+   */
+  @Override
+  public void destroy() {
+    readerPools.forEach(HikariDataSource::close);
+    readerPools.clear();
+  }
+
+  /**
+   * Route read-only transactions to a second pool with the settings of the primary pool and the reader host. The
+   * reader pool is closed when this post-processor is destroyed.
+   */
+  private DataSource withReader(DataSource folioDataSource, DataSource dataSource, String readerHost) {
+    if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+      log.warn("HikariCP:: reader host {} ignored, the data source is not a HikariCP pool", readerHost);
+      return folioDataSource;
+    }
+    var readerPort = FolioDatabaseEnvs.DB_PORT_READER.findString().orElse(null);
+    var readerJdbcUrl = toReaderJdbcUrl(hikariDataSource.getJdbcUrl(), readerHost, readerPort);
+    if (readerJdbcUrl == null) {
+      log.warn("HikariCP:: reader host {} ignored, the JDBC URL of the data source has no host", readerHost);
+      return folioDataSource;
+    }
+
+    var reader = new HikariDataSource();
+    hikariDataSource.copyStateTo(reader);
+    reader.setJdbcUrl(readerJdbcUrl);
+    reader.setPoolName(hikariDataSource.getPoolName() == null ? null : hikariDataSource.getPoolName() + "-reader");
+    readerPools.add(reader);
+    log.info("HikariCP:: read-only transactions use reader host: {}", readerHost);
+    return new ReaderRoutingDataSource(folioDataSource, new DataSourceFolioWrapper(reader, folioExecutionContext));
+  }
+
+  /**
+   * Replace host and, if given, port of a PostgreSQL JDBC URL.
+   *
+   * @return the JDBC URL of the reader, {@code null} if the URL has no host
+   */
+  static String toReaderJdbcUrl(String jdbcUrl, String host, String port) {
+    var matcher = jdbcUrl == null ? null : JDBC_URL_PATTERN.matcher(jdbcUrl);
+    if (matcher == null || !matcher.matches()) {
+      return null;
+    }
+    var readerPort = port != null ? ":" + port : Objects.toString(matcher.group(2), "");
+    return matcher.group(1) + host + readerPort + matcher.group(3);
+  }
+
   private IllegalStateException unknownDatasourceException() {
     return new IllegalStateException(
       "Bean with dataSource name should be instance of DataSource or FactoryBean");
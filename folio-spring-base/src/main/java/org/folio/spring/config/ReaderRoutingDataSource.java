@@ -0,0 +1,29 @@
+package org.folio.spring.config;
+
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Data source that runs read-only transactions on a read replica and everything else on the primary database.
+ *
+ * <p>The physical connection is obtained lazily, at the first statement, when the transaction manager has already
+ * marked the connection read-only. {@code @Transactional(readOnly = true)} methods, including the
+ * {@code findByCql} and {@code countByCql} methods of CQL repositories, therefore use the reader pool, unless they
+ * join a read-write transaction. Both data sources are {@link DataSourceFolioWrapper}s, so either connection gets
+ * the {@code search_path} of the tenant. The reader pool is closed by the
+ * {@link DataSourceSchemaAdvisorBeanPostProcessor} that created it.
+ */
+public final class ReaderRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+  private final DataSource readerDataSource;
+
+  public ReaderRoutingDataSource(DataSource primaryDataSource, DataSource readerDataSource) {
+    super(primaryDataSource);
+    setReadOnlyDataSource(readerDataSource);
+    this.readerDataSource = readerDataSource;
+  }
+
+  public DataSource getReaderDataSource() {
+    return readerDataSource;
+  }
+}
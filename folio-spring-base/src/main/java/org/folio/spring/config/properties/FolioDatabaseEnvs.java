@@ -42,7 +42,18 @@ public enum FolioDatabaseEnvs {
    * Limits the lifetime (non-idle time plus idle time) of a database connection in milliseconds. If exceeded the
    * connection is closed if it is or becomes idle. 0 means unlimited lifetime. It defaults to 1800000 (30 minutes).
    */
-  DB_MAX_LIFETIME("1800000");
+  DB_MAX_LIFETIME("1800000"),
+
+  /**
+   * Host of a read replica of the database. If set, read-only transactions use a second connection pool with the
+   * same settings to this host. The name is the same as in `raml-module-builder`.
+   */
+  DB_HOST_READER(null),
+
+  /**
+   * Port of the read replica of the database. Defaults to the port of the primary database.
+   */
+  DB_PORT_READER(null);
 
   private final String defaultValue;
 
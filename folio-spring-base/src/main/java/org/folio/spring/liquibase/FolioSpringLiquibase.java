@@ -38,6 +38,7 @@ public class FolioSpringLiquibase extends SpringLiquibase {
           // https://github.com/folio-org/raml-module-builder/blob/v35.3.0/domain-models-runtime/src/main/resources/templates/db_scripts/extensions.ftl
           statement.execute("DO $$ BEGIN PERFORM pg_advisory_xact_lock(20201101, 1234567890); "
               + "CREATE EXTENSION IF NOT EXISTS unaccent WITH SCHEMA public; "
+              + "CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public; "
               + "END $$");
           // https://github.com/folio-org/raml-module-builder/blob/v35.3.0/domain-models-runtime/src/main/resources/templates/db_scripts/general_functions.ftl#L89-L94
           statement.execute("CREATE OR REPLACE FUNCTION " + defaultSchema + ".f_unaccent(text) "
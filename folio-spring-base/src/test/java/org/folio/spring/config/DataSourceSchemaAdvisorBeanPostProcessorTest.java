@@ -1,9 +1,13 @@
 package org.folio.spring.config;
 
 import static org.folio.spring.config.DataSourceSchemaAdvisorBeanPostProcessor.DATASOURCE_BEAN_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -40,6 +44,8 @@ class DataSourceSchemaAdvisorBeanPostProcessorTest {
     System.clearProperty("DB_MINSHAREDPOOLSIZE");
     System.clearProperty("DB_MAXSHAREDPOOLSIZE");
     System.clearProperty("DB_CHARSET");
+    System.clearProperty("DB_HOST_READER");
+    System.clearProperty("DB_PORT_READER");
   }
 
   @Test
@@ -61,6 +67,48 @@ class DataSourceSchemaAdvisorBeanPostProcessorTest {
     assertInstanceOf(DataSourceFolioWrapper.class, result);
   }
 
+  @Test
+  void postProcessAfterInitialization_withReaderHost_shouldRouteReadOnlyToReaderPool() {
+    System.setProperty("DB_HOST_READER", "replica");
+    System.setProperty("DB_PORT_READER", "6432");
+    try (var dataSource = new HikariDataSource()) {
+      dataSource.setJdbcUrl("jdbc:postgresql://primary:5432/okapi_modules");
+      dataSource.setPoolName("folio");
+      dataSource.setMaximumPoolSize(7);
+
+      var result = postProcessor.postProcessAfterInitialization(dataSource, DATASOURCE_BEAN_NAME);
+
+      var routing = assertInstanceOf(ReaderRoutingDataSource.class, result);
+      assertInstanceOf(DataSourceFolioWrapper.class, routing.getTargetDataSource());
+      var reader = assertInstanceOf(DataSourceFolioWrapper.class, routing.getReaderDataSource());
+      var readerPool = assertInstanceOf(HikariDataSource.class, reader.getTargetDataSource());
+      assertEquals("jdbc:postgresql://replica:6432/okapi_modules", readerPool.getJdbcUrl());
+      assertEquals("folio-reader", readerPool.getPoolName());
+      assertEquals(7, readerPool.getMaximumPoolSize());
+
+      postProcessor.destroy();
+      assertTrue(readerPool.isClosed());
+      assertFalse(dataSource.isClosed());
+    }
+  }
+
+  @Test
+  void postProcessAfterInitialization_withReaderHostAndOtherDataSource_shouldOnlyWrapDataSource() {
+    System.setProperty("DB_HOST_READER", "replica");
+    var dataSource = mock(DataSource.class);
+
+    var result = postProcessor.postProcessAfterInitialization(dataSource, DATASOURCE_BEAN_NAME);
+
+    assertInstanceOf(DataSourceFolioWrapper.class, result);
+  }
+
+  @Test
+  void toReaderJdbcUrl_withoutReaderPort_shouldKeepPrimaryPort() {
+    assertEquals("jdbc:postgresql://replica:5432/okapi_modules?ssl=true", DataSourceSchemaAdvisorBeanPostProcessor
+      .toReaderJdbcUrl("jdbc:postgresql://primary:5432/okapi_modules?ssl=true", "replica", null));
+    assertNull(DataSourceSchemaAdvisorBeanPostProcessor.toReaderJdbcUrl("jdbc:h2:mem:test", "replica", null));
+  }
+
   @Test
   void postProcessAfterInitialization_withUnknownBeanName_shouldReturnOriginalBean() {
     var bean = new Object();
@@ -0,0 +1,90 @@
+package org.folio.spring.cql;
+
+import java.util.regex.Pattern;
+import liquibase.change.custom.CustomSqlChange;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Base of the Liquibase changes creating the GIN index of a column searched by CQL queries.
+ */
+@Getter
+@Setter
+public abstract class AbstractIndexChange implements CustomSqlChange {
+
+  private static final Pattern NAME_PATTERN = Pattern.compile("\\w+");
+
+  private String tableName;
+  private String columnName;
+  private String indexName;
+
+  @Override
+  public SqlStatement[] generateStatements(Database database) {
+    return new SqlStatement[] {new RawParameterizedSqlStatement(getSql())};
+  }
+
+  /**
+   * Returns the statement creating the index.
+   *
+   * @return SQL of the statement
+   */
+  public String getSql() {
+    return "CREATE INDEX IF NOT EXISTS " + getEffectiveIndexName() + " ON " + tableName
+      + " USING gin (" + getIndexExpression() + ")";
+  }
+
+  @Override
+  public String getConfirmationMessage() {
+    return "Index " + getEffectiveIndexName() + " created";
+  }
+
+  @Override
+  public void setUp() {
+    // nothing to set up
+  }
+
+  @Override
+  public void setFileOpener(ResourceAccessor resourceAccessor) {
+    // no resources needed
+  }
+
+  @Override
+  public ValidationErrors validate(Database database) {
+    var errors = new ValidationErrors();
+    checkName(errors, "tableName", tableName);
+    checkName(errors, "columnName", columnName);
+    if (indexName != null) {
+      checkName(errors, "indexName", indexName);
+    }
+    return errors;
+  }
+
+  /**
+   * Returns the indexed expression, including the operator class if needed.
+   *
+   * @return SQL of the index expression
+   */
+  protected abstract String getIndexExpression();
+
+  /**
+   * Returns the suffix of the default index name.
+   *
+   * @return suffix appended to table and column name
+   */
+  protected abstract String getIndexNameSuffix();
+
+  private String getEffectiveIndexName() {
+    return indexName != null ? indexName : tableName + "_" + columnName + "_" + getIndexNameSuffix();
+  }
+
+  private static void checkName(ValidationErrors errors, String field, String value) {
+    if (value == null || !NAME_PATTERN.matcher(value).matches()) {
+      errors.addError(field + " must be a plain SQL identifier");
+    }
+  }
+}
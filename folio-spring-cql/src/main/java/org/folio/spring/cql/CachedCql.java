@@ -0,0 +1,24 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Cache the results of {@code findByCql(String, Pageable)}, {@code findAllByCql} and {@code countByCql} of the
+ * annotated repository in the {@link CqlResultCache}, for entities that are read far more often than they change,
+ * like reference data.
+ *
+ * <p>The cache is invalidated for the tenant when the {@code save} or {@code delete} methods of the repository
+ * change an entity. Changes made in other ways, e.g. by other module instances or native SQL, become visible when
+ * the cached results expire after {@code folio.cql.result-cache.ttl}. A cached page holds the ids of its entities,
+ * which are read again by id in the persistence context of each request, so that no entity instance is shared
+ * between requests. Entities with a composite id are not cached.
+ */
+@Documented
+@Target({TYPE})
+@Retention(RUNTIME)
+public @interface CachedCql {}
@@ -0,0 +1,30 @@
+package org.folio.spring.cql;
+
+/**
+ * How the total number of entities matching a CQL query is determined for a page.
+ *
+ * <p>No count query is run if the total follows from the page itself, i.e. for a page that is not full.
+ */
+public enum CountStrategy {
+
+  /**
+   * Count all matching entities.
+   */
+  EXACT,
+
+  /**
+   * Count matching entities up to the configured cap; if there are more, the cap is reported as a lower bound.
+   */
+  CAPPED,
+
+  /**
+   * Use the PostgreSQL table statistics ({@code pg_class.reltuples}) for queries matching all records, and a capped
+   * count for other queries. Small results are always counted exactly.
+   */
+  ESTIMATED,
+
+  /**
+   * Do not count; only whether there is a next page is determined.
+   */
+  NONE
+}
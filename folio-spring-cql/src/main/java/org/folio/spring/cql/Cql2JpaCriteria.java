@@ -5,17 +5,24 @@ import static org.folio.cql2pgjson.model.CqlTermFormat.NUMBER;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Nulls;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.ManagedType;
 import jakarta.persistence.metamodel.PluralAttribute;
-import java.io.IOException;
-import java.lang.reflect.Field;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -26,7 +33,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
 import lombok.extern.log4j.Log4j2;
@@ -37,14 +46,13 @@ import org.folio.cql2pgjson.exception.QueryValidationException;
 import org.folio.cql2pgjson.model.CqlModifiers;
 import org.folio.cql2pgjson.model.CqlSort;
 import org.folio.cql2pgjson.util.Cql2SqlUtil;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.z3950.zing.cql.CQLAndNode;
 import org.z3950.zing.cql.CQLBooleanNode;
 import org.z3950.zing.cql.CQLNode;
 import org.z3950.zing.cql.CQLNotNode;
 import org.z3950.zing.cql.CQLOrNode;
-import org.z3950.zing.cql.CQLParseException;
-import org.z3950.zing.cql.CQLParser;
 import org.z3950.zing.cql.CQLSortNode;
 import org.z3950.zing.cql.CQLTermNode;
 import org.z3950.zing.cql.Modifier;
@@ -54,15 +62,60 @@ import org.z3950.zing.cql.ModifierSet;
 public class Cql2JpaCriteria<E> {
 
   private static final String NOT_EQUALS_OPERATOR = "<>";
-  private static final String ASTERISKS_SIGN = "*";
+  private static final String ALL_RECORDS_INDEX = "cql.allRecords";
   private static final Pattern DATES_RANGE_PATTERN = Pattern.compile("\\d{4}(-\\d{2}){2}:\\d{4}(-\\d{2}){2}");
+  private static final int MAX_FACET_FIELDS = 31;
+  private static final Pattern JSONB_KEY_PATTERN = Pattern.compile("[\\w-]+");
 
   private final Class<E> domainClass;
   private final EntityManager em;
+  private final CqlParserCache parserCache;
+  private final boolean parameterized;
+  private final Map<Class<?>, CqlEntityMetadata> metadataByType = new ConcurrentHashMap<>();
+  private CqlQueryMonitor monitor;
+  private CqlCostPolicy costPolicy;
 
   public Cql2JpaCriteria(Class<E> domainClass, EntityManager entityManager) {
+    this(domainClass, entityManager, CqlParserCache.getDefault());
+  }
+
+  public Cql2JpaCriteria(Class<E> domainClass, EntityManager entityManager, CqlParserCache parserCache) {
+    this(domainClass, entityManager, parserCache, false);
+  }
+
+  /**
+   * Create the criteria builder for the domain class.
+   *
+   * @param domainClass   entity class
+   * @param entityManager entity manager to build criteria queries with
+   * @param parserCache   cache of parsed CQL queries
+   * @param parameterized whether string search terms are bound as query parameters instead of SQL literals, so that
+   *                      queries that differ only in their terms render the same SQL
+   */
+  public Cql2JpaCriteria(Class<E> domainClass, EntityManager entityManager, CqlParserCache parserCache,
+                         boolean parameterized) {
     this.domainClass = domainClass;
     this.em = entityManager;
+    this.parserCache = parserCache;
+    this.parameterized = parameterized;
+  }
+
+  /**
+   * Set the monitor that times the parsing of CQL queries.
+   *
+   * @param monitor query monitor, {@code null} to not time parsing
+   */
+  public void setMonitor(CqlQueryMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  /**
+   * Set the policy that rejects too expensive queries before any predicate is built.
+   *
+   * @param costPolicy cost policy, {@code null} to accept all queries
+   */
+  public void setCostPolicy(CqlCostPolicy costPolicy) {
+    this.costPolicy = costPolicy;
   }
 
   /**
@@ -73,7 +126,7 @@ public class Cql2JpaCriteria<E> {
    */
   public CriteriaQuery<E> toCollectCriteria(String cql) {
     try {
-      var node = new CQLParser().parse(cql);
+      var node = parseCql(cql);
 
       var cb = em.getCriteriaBuilder();
       var query = cb.createQuery(domainClass);
@@ -82,7 +135,7 @@ public class Cql2JpaCriteria<E> {
 
       query.where(predicate);
       return query;
-    } catch (IOException | QueryValidationException | CQLParseException e) {
+    } catch (QueryValidationException e) {
       throw new CqlQueryValidationException(e);
     }
   }
@@ -111,7 +164,7 @@ public class Cql2JpaCriteria<E> {
    */
   public CriteriaQuery<Long> toCountCriteria(String cql) {
     try {
-      var node = new CQLParser().parse(cql);
+      var node = parseCql(cql);
 
       var cb = em.getCriteriaBuilder();
       var query = cb.createQuery(Long.class);
@@ -122,7 +175,7 @@ public class Cql2JpaCriteria<E> {
       root.getFetches().clear();
       query.where(predicate);
       return query;
-    } catch (IOException | CQLParseException | QueryValidationException e) {
+    } catch (QueryValidationException e) {
       throw new CqlQueryValidationException(e);
     }
   }
@@ -144,6 +197,259 @@ public class Cql2JpaCriteria<E> {
     return query;
   }
 
+  /**
+   * Convert the CQL query into the WHERE clause of a {@link CriteriaDelete} that deletes all matching entities with
+   * one statement. Sorting is ignored.
+   *
+   * @param cql the query to convert
+   * @return {@link CriteriaDelete} of the matching entities
+   */
+  public CriteriaDelete<E> toDeleteCriteria(String cql) {
+    try {
+      var node = parseCql(cql);
+
+      var cb = em.getCriteriaBuilder();
+      var delete = cb.createCriteriaDelete(domainClass);
+      var root = delete.from(domainClass);
+      delete.where(process(node instanceof CQLSortNode sortNode ? sortNode.getSubtree() : node, cb, root, delete));
+      return delete;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Convert the CQL query into the WHERE clause of a {@link CriteriaUpdate} that sets the given attributes of all
+   * matching entities with one statement. Sorting is ignored.
+   *
+   * @param cql         the query to convert
+   * @param assignments new values by attribute name
+   * @return {@link CriteriaUpdate} of the matching entities
+   * @throws IllegalArgumentException if there are no assignments or an attribute does not exist
+   */
+  public CriteriaUpdate<E> toUpdateCriteria(String cql, Map<String, Object> assignments) {
+    if (assignments.isEmpty()) {
+      throw new IllegalArgumentException("No attributes to update");
+    }
+    try {
+      var node = parseCql(cql);
+
+      var cb = em.getCriteriaBuilder();
+      var update = cb.createCriteriaUpdate(domainClass);
+      var root = update.from(domainClass);
+      assignments.forEach((attribute, value) -> update.set(root.get(attribute), value));
+      update.where(process(node instanceof CQLSortNode sortNode ? sortNode.getSubtree() : node, cb, root, update));
+      return update;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Convert the CQL query into WHERE and the ORDER BY SQL clauses and return {@link CriteriaQuery} selecting only
+   * the given attributes, each aliased by its name.
+   *
+   * @param cql        the query to convert
+   * @param attributes names of the attributes to select
+   * @return {@link CriteriaQuery} selecting a tuple of attribute values
+   */
+  public CriteriaQuery<Tuple> toTupleCriteria(String cql, List<String> attributes) {
+    try {
+      var node = parseCql(cql);
+
+      var cb = em.getCriteriaBuilder();
+      var query = cb.createTupleQuery();
+      var root = query.from(domainClass);
+      query.select(cb.tuple(attributes.stream()
+        .<Selection<?>>map(attribute -> root.get(attribute).alias(attribute))
+        .toList()));
+      var predicate = createPredicate(node, root, cb, query);
+      query.where(predicate);
+      return query;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Convert the CQL query into WHERE SQL clause and return {@link CriteriaQuery} counting the matching entities per
+   * value of each facet field with one scan, {@code GROUP BY GROUPING SETS ((f1), (f2), ...)}. Sorting is ignored.
+   *
+   * <p>Each tuple holds the {@code GROUPING(f1, f2, ...)} bit mask, where the bit of the counted field is the only
+   * one not set, followed by the values of the facet fields and the count. Tuples are ordered by descending count.
+   *
+   * @param cql         the query to convert
+   * @param facetFields names of the attributes to count the values of, at most 31
+   * @return {@link CriteriaQuery} selecting grouping mask, facet values and count
+   * @throws IllegalArgumentException if there are too many facet fields or one of them is a collection
+   */
+  @SuppressWarnings("rawtypes")
+  public CriteriaQuery<Tuple> toFacetCriteria(String cql, List<String> facetFields) {
+    if (facetFields.size() > MAX_FACET_FIELDS) {
+      throw new IllegalArgumentException("At most " + MAX_FACET_FIELDS + " facet fields are supported");
+    }
+    try {
+      var node = parseCql(cql);
+
+      var cb = (HibernateCriteriaBuilder) em.getCriteriaBuilder();
+      var query = cb.createTupleQuery();
+      var root = query.from(domainClass);
+      query.where(process(node instanceof CQLSortNode sortNode ? sortNode.getSubtree() : node, cb, root, query));
+      var metadata = getMetadata(domainClass, root.getModel());
+      var paths = new ArrayList<Expression<?>>();
+      for (var facetField : facetFields) {
+        if (metadata.getPluralAttribute(facetField) != null) {
+          throw new IllegalArgumentException("Facet field must not be a collection: " + facetField);
+        }
+        paths.add(root.get(facetField));
+      }
+
+      var arguments = paths.toArray(Expression[]::new);
+      var count = cb.count(root);
+      var selections = new ArrayList<Selection<?>>();
+      selections.add(cb.sql("grouping(" + String.join(", ", Collections.nCopies(paths.size(), "?")) + ")",
+        Integer.class, arguments));
+      selections.addAll(paths);
+      selections.add(count);
+      query.select(cb.tuple(selections));
+      query.groupBy(cb.sql("grouping sets (" + String.join(", ", Collections.nCopies(paths.size(), "(?)")) + ")",
+        Object.class, arguments));
+      query.orderBy(cb.desc(count));
+      return query;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Convert the CQL query into a {@link CriteriaQuery} counting at most {@code limit} matching entities. The count is
+   * taken over a subquery that selects the first {@code limit} matching rows, so that the database stops after them
+   * and no rows are transferred. Sorting is ignored.
+   *
+   * @param cql   the query to convert
+   * @param limit maximum number of entities to count
+   * @return {@link CriteriaQuery} for the limited count
+   */
+  public CriteriaQuery<Long> toLimitedCountCriteria(String cql, int limit) {
+    try {
+      var node = parseCql(cql);
+
+      var cb = (HibernateCriteriaBuilder) em.getCriteriaBuilder();
+      var query = cb.createQuery(Long.class);
+      var subquery = query.subquery(Integer.class);
+      var root = subquery.from(domainClass);
+      var one = cb.literal(1);
+      one.alias("one");
+      subquery.select(one)
+        .where(process(node instanceof CQLSortNode sortNode ? sortNode.getSubtree() : node, cb, root, subquery))
+        .fetch(limit);
+      query.from(subquery);
+      query.select(cb.count());
+      return query;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Convert the CQL query into WHERE and the ORDER BY SQL clauses and return {@link CriteriaQuery} selecting the
+   * primary key of the matching entities, followed by the sort key values so that the query stays valid if it has
+   * to select distinct rows.
+   *
+   * @param cql         the query to convert
+   * @param idAttribute name of the primary key attribute of the entity
+   * @return {@link CriteriaQuery} selecting primary keys in the order of the query
+   */
+  public CriteriaQuery<Tuple> toSortedIdCriteria(String cql, String idAttribute) {
+    try {
+      var node = parseCql(cql);
+
+      var cb = em.getCriteriaBuilder();
+      var query = cb.createTupleQuery();
+      var root = query.from(domainClass);
+      query.where(createPredicate(node, root, cb, query));
+      var selections = new ArrayList<Selection<?>>();
+      selections.add(root.get(idAttribute));
+      query.getOrderList().forEach(order -> selections.add(order.getExpression()));
+      query.select(cb.tuple(selections));
+      return query;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
+  /**
+   * Create {@link CriteriaQuery} selecting the entities with the given primary keys.
+   *
+   * @param idAttribute name of the primary key attribute of the entity
+   * @param ids         primary keys of the entities
+   * @return {@link CriteriaQuery} for selection
+   */
+  public CriteriaQuery<E> toIdInCriteria(String idAttribute, Collection<?> ids) {
+    var cb = em.getCriteriaBuilder();
+    var query = cb.createQuery(domainClass);
+    var root = query.from(domainClass);
+    query.where(root.get(idAttribute).in(ids));
+    return query;
+  }
+
+  /**
+   * Check whether the CQL query matches all records, i.e. is {@code cql.allRecords=1} with optional sorting.
+   *
+   * @param cql the query to check
+   * @return {@code true} if the query has no filter
+   */
+  public boolean isAllRecords(String cql) {
+    var node = parseCql(cql);
+    if (node instanceof CQLSortNode sortNode) {
+      node = sortNode.getSubtree();
+    }
+    return node instanceof CQLTermNode termNode && ALL_RECORDS_INDEX.equalsIgnoreCase(termNode.getIndex());
+  }
+
+  /**
+   * Convert the CQL query into a keyset (seek) query that selects the entity followed by the values of its sort keys.
+   *
+   * <p>The CQL sort keys are sorted like {@link #toCollectCriteria(String)} sorts them, e.g. {@code name} by
+   * {@code lower(f_unaccent(name))}, and the selected values are the sorted ones. The sort keys are extended by the
+   * primary key as a tiebreaker, so that the order is total. If the values
+   * of the sort keys of the last entity of the previous page are given, only entities sorted after it are selected.
+   *
+   * @param cql         the query to convert
+   * @param idAttribute name of the primary key attribute of the entity
+   * @param after       sort key values of the last entity of the previous page, {@code null} for the first page
+   * @return {@link CriteriaQuery} selecting the entity and its sort key values
+   */
+  public CriteriaQuery<Tuple> toKeysetCriteria(String cql, String idAttribute, List<String> after) {
+    try {
+      var node = parseCql(cql);
+
+      var cb = em.getCriteriaBuilder();
+      var query = cb.createTupleQuery();
+      var root = query.from(domainClass);
+      var sortNode = node instanceof CQLSortNode cqlSortNode ? cqlSortNode : null;
+      var keys = toKeysetKeys(sortNode, root, cb, idAttribute);
+
+      var selections = new ArrayList<Selection<?>>();
+      selections.add(root);
+      keys.forEach(key -> selections.add(key.expression()));
+      query.select(cb.tuple(selections));
+      query.orderBy(keys.stream().map(key -> key.toOrder(cb)).toList());
+
+      var predicate = process(sortNode == null ? node : sortNode.getSubtree(), cb, root, query);
+      if (after != null) {
+        if (after.size() != keys.size()) {
+          throw new CqlQueryValidationException("Continuation token does not match the sort keys of the query");
+        }
+        predicate = cb.and(predicate, seekPredicate(keys, after, cb));
+      }
+      query.where(predicate);
+      return query;
+    } catch (QueryValidationException e) {
+      throw new CqlQueryValidationException(e);
+    }
+  }
+
   /**
    * Create collect criteria specification which can be used with other specifications in order to create
    * more complex ones.
@@ -154,9 +460,9 @@ public class Cql2JpaCriteria<E> {
   public Specification<E> createCollectSpecification(String cql) {
     return (root, query, criteriaBuilder) -> {
       try {
-        var node = new CQLParser().parse(cql);
+        var node = parseCql(cql);
         return createPredicate(node, root, criteriaBuilder, query);
-      } catch (IOException | CQLParseException | QueryValidationException e) {
+      } catch (QueryValidationException e) {
         throw new CqlQueryValidationException(e);
       }
     };
@@ -172,9 +478,9 @@ public class Cql2JpaCriteria<E> {
   public Specification<E> createCountSpecification(String cql) {
     return (root, query, criteriaBuilder) -> {
       try {
-        var node = new CQLParser().parse(cql);
+        var node = parseCql(cql);
         return createPredicate(node, root, criteriaBuilder, criteriaBuilder.createQuery(Long.class));
-      } catch (IOException | CQLParseException | QueryValidationException e) {
+      } catch (QueryValidationException e) {
         throw new CqlQueryValidationException(e);
       }
     };
@@ -231,21 +537,123 @@ public class Cql2JpaCriteria<E> {
     return predicates;
   }
 
+  /**
+   * Create the ORDER BY of the sort keys. A dotted key sorts by a field of a referenced entity through the same
+   * LEFT JOIN as the filter. String keys are wrapped in the case and accent functions of the entity like the
+   * filter, e.g. {@code lower(f_unaccent(name))}, so that an expression index on them can return the rows in order.
+   */
   private List<Order> toOrders(CQLSortNode node, Root<E> root, CriteriaBuilder cb)
     throws CQLFeatureUnsupportedException {
+    var wrapper = wrapper(cb);
     List<Order> orders = new ArrayList<>();
 
     for (ModifierSet sortIndex : node.getSortIndexes()) {
-      var modifiers = new CqlModifiers(sortIndex);
-      orders.add(
-        CqlSort.DESCENDING.equals(modifiers.getCqlSort())
-        ? cb.desc(root.get(sortIndex.getBase()))
-        : cb.asc(root.get(sortIndex.getBase())));
+      var modifiers = new CqlModifiers(CqlNodes.withoutNullOrdering(sortIndex));
+      var nulls = CqlNodes.getNullOrdering(sortIndex);
+      var key = toSortKey(sortIndex.getBase(), root, wrapper);
+      if (CqlSort.DESCENDING.equals(modifiers.getCqlSort())) {
+        orders.add(nulls == Nulls.NONE ? cb.desc(key) : cb.desc(key, nulls));
+      } else {
+        orders.add(nulls == Nulls.NONE ? cb.asc(key) : cb.asc(key, nulls));
+      }
     }
     return orders;
   }
 
-  private Predicate process(CQLNode node, CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query)
+  @SuppressWarnings("unchecked")
+  private Expression<?> toSortKey(String index, Root<E> root, UnaryOperator<Expression<String>> wrapper)
+    throws CQLFeatureUnsupportedException {
+    var attributeName = StringUtils.substringBefore(index, ".");
+    if (getMetadata(domainClass, root.getModel()).getPluralAttribute(attributeName) != null) {
+      throw new CQLFeatureUnsupportedException("CQL: Sorting by a collection is not supported, sort key: " + index);
+    }
+    var path = getPath(index, root);
+    return String.class.equals(path.getJavaType()) ? wrapper.apply((Path<String>) path) : path;
+  }
+
+  /**
+   * Create the keys of a keyset query: the sort keys as sorted by {@link #toOrders}, including the case and accent
+   * functions, dotted keys and the null ordering, followed by the primary key unless it is a sort key already.
+   */
+  private List<KeysetKey> toKeysetKeys(CQLSortNode node, Root<E> root, CriteriaBuilder cb, String idAttribute)
+    throws CQLFeatureUnsupportedException {
+    var wrapper = wrapper(cb);
+    var keys = new ArrayList<KeysetKey>();
+    var hasIdKey = false;
+    if (node != null) {
+      for (ModifierSet sortIndex : node.getSortIndexes()) {
+        var index = sortIndex.getBase();
+        var descending = CqlSort.DESCENDING.equals(new CqlModifiers(CqlNodes.withoutNullOrdering(sortIndex))
+          .getCqlSort());
+        var nulls = CqlNodes.getNullOrdering(sortIndex);
+        // a dotted key is null for entities without the referenced entity
+        var nullable = index.contains(".") || isOptional(getPath(index, root));
+        keys.add(new KeysetKey(toSortKey(index, root, wrapper), descending,
+          nulls == Nulls.NONE ? descending : nulls == Nulls.FIRST, nullable));
+        hasIdKey |= idAttribute.equals(index);
+      }
+    }
+    if (!hasIdKey) {
+      keys.add(new KeysetKey(root.get(idAttribute), false, false, false));
+    }
+    return keys;
+  }
+
+  private static boolean isOptional(Path<?> path) {
+    return !(path.getModel() instanceof SingularAttribute<?, ?> attribute) || attribute.isOptional();
+  }
+
+  /**
+   * Create the predicate selecting rows sorted after the given key values. The row value comparison
+   * {@code (k1, k2) > (v1, v2)} cannot be expressed with the Criteria API, so its lexicographic expansion
+   * {@code k1 > v1 OR (k1 = v1 AND k2 > v2)} is used, with the direction and the null ordering of each key taken
+   * into account. A range condition on the leading key is added so that an index on the sort keys can be used.
+   */
+  private Predicate seekPredicate(List<KeysetKey> keys, List<String> after, CriteriaBuilder cb) {
+    var values = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      values.add(KeysetToken.parse(after.get(i), keys.get(i).expression().getJavaType()));
+    }
+
+    var last = keys.size() - 1;
+    var predicate = sortedAfter(keys.get(last), values.get(last), cb);
+    for (int i = last - 1; i >= 0; i--) {
+      predicate = cb.or(sortedAfter(keys.get(i), values.get(i), cb),
+        cb.and(equalTo(keys.get(i).expression(), values.get(i), cb), predicate));
+    }
+
+    var leading = keys.getFirst();
+    if (values.getFirst() != null && !leading.nullable()) {
+      predicate = cb.and(leadingKeyRange(leading, values.getFirst(), cb), predicate);
+    }
+    return predicate;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Predicate sortedAfter(KeysetKey key, Object value, CriteriaBuilder cb) {
+    Expression expression = key.expression();
+    if (value == null) {
+      return key.nullsFirst() ? cb.isNotNull(expression) : cb.disjunction();
+    }
+    var after = key.descending()
+                ? cb.lessThan(expression, (Comparable) value)
+                : cb.greaterThan(expression, (Comparable) value);
+    return key.nullable() && !key.nullsFirst() ? cb.or(after, cb.isNull(expression)) : after;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Predicate leadingKeyRange(KeysetKey key, Object value, CriteriaBuilder cb) {
+    Expression expression = key.expression();
+    return key.descending()
+           ? cb.lessThanOrEqualTo(expression, (Comparable) value)
+           : cb.greaterThanOrEqualTo(expression, (Comparable) value);
+  }
+
+  private static Predicate equalTo(Expression<?> expression, Object value, CriteriaBuilder cb) {
+    return value == null ? cb.isNull(expression) : cb.equal(expression, value);
+  }
+
+  private Predicate process(CQLNode node, CriteriaBuilder cb, Root<E> root, CommonAbstractCriteria query)
     throws QueryValidationException {
     switch (node) {
       case CQLTermNode cqlTermNode -> {
@@ -258,7 +666,8 @@ public class Cql2JpaCriteria<E> {
     }
   }
 
-  private Predicate processBoolean(CQLBooleanNode node, CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query)
+  private Predicate processBoolean(CQLBooleanNode node, CriteriaBuilder cb, Root<E> root,
+                                   CommonAbstractCriteria query)
     throws QueryValidationException {
     return switch (node) {
       case CQLAndNode cqlAndNode -> processCqlAndNode(cb, root, query, cqlAndNode);
@@ -268,72 +677,259 @@ public class Cql2JpaCriteria<E> {
     };
   }
 
-  private Predicate processCqlNotNode(CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query, CQLNotNode cqlNotNode)
+  private Predicate processCqlNotNode(CriteriaBuilder cb, Root<E> root, CommonAbstractCriteria query,
+                                      CQLNotNode cqlNotNode)
     throws QueryValidationException {
     return cb.and(process(cqlNotNode.getLeftOperand(), cb, root, query),
       cb.not(process(cqlNotNode.getRightOperand(), cb, root, query)));
   }
 
-  private Predicate processCqlAndNode(CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query, CQLAndNode cqlAndNode)
+  private Predicate processCqlAndNode(CriteriaBuilder cb, Root<E> root, CommonAbstractCriteria query,
+                                      CQLAndNode cqlAndNode)
     throws QueryValidationException {
-    return cb.and(process(cqlAndNode.getLeftOperand(), cb, root, query),
-      process(cqlAndNode.getRightOperand(), cb, root, query));
+    var predicates = new ArrayList<Predicate>();
+    for (var operand : CqlNodes.flatten(cqlAndNode)) {
+      predicates.add(process(operand, cb, root, query));
+    }
+    return predicates.size() == 2
+           ? cb.and(predicates.getFirst(), predicates.getLast())
+           : cb.and(predicates.toArray(Predicate[]::new));
   }
 
-  private Predicate processCqlOrNode(CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query, CQLOrNode cqlOrNode)
+  private Predicate processCqlOrNode(CriteriaBuilder cb, Root<E> root, CommonAbstractCriteria query,
+                                     CQLOrNode cqlOrNode)
     throws QueryValidationException {
-    if (cqlOrNode.getRightOperand().getClass() == CQLTermNode.class) {
-      // special case for the query the UI uses most often, before the user has
-      // typed in anything: title=* OR contributors*= OR identifier=*
-      var rightOperand = (CQLTermNode) cqlOrNode.getRightOperand();
-      if (ASTERISKS_SIGN.equals(rightOperand.getTerm()) && "=".equals(rightOperand.getRelation().getBase())
-          && isEmpty(rightOperand.getRelation().getModifiers())) {
-        log.debug("pgFT(): Simplifying =* OR =* ");
-        return process(cqlOrNode.getLeftOperand(), cb, root, query);
+    var predicates = new ArrayList<Predicate>();
+    for (var group : CqlNodes.groupEqualityTerms(CqlNodes.flatten(cqlOrNode)).entrySet()) {
+      var inPredicate = group.getKey() != null && group.getValue().size() > 1
+                        ? inPredicate(group.getKey(), group.getValue(), cb, root)
+                        : null;
+      if (inPredicate != null) {
+        predicates.add(inPredicate);
+        continue;
+      }
+      for (var operand : group.getValue()) {
+        predicates.add(process(operand, cb, root, query));
+      }
+    }
+    return switch (predicates.size()) {
+      case 1 -> predicates.getFirst();
+      case 2 -> cb.or(predicates.getFirst(), predicates.getLast());
+      default -> cb.or(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  /**
+   * Create one predicate for ORed equality terms on the same field, e.g. {@code id==a or id==b or id==c},
+   * instead of a predicate per term. With Hibernate the values are bound as one array, {@code id = any(?)}, so
+   * that the SQL doesn't depend on the number of terms, otherwise it is an IN list.
+   *
+   * @return the predicate, {@code null} if the field is a collection or its type doesn't allow it
+   */
+  @SuppressWarnings("unchecked")
+  private Predicate inPredicate(String fieldName, List<CQLNode> terms, CriteriaBuilder cb, Root<E> root) {
+    if (getMetadata(domainClass, root.getModel()).getPluralAttribute(fieldName) != null) {
+      return null;
+    }
+
+    Path<?> field = root.get(fieldName);
+    var values = terms.stream().map(term -> ((CQLTermNode) term).getTerm());
+    if (UUID.class.equals(field.getJavaType())) {
+      var uuids = values.map(UUID::fromString).toArray(UUID[]::new);
+      return cb instanceof HibernateCriteriaBuilder hibernateCriteriaBuilder
+             ? anyPredicate("v", field, hibernateCriteriaBuilder.value(uuids), hibernateCriteriaBuilder)
+             : field.in(Arrays.asList(uuids));
+    }
+    if (String.class.equals(field.getJavaType())) {
+      var wrapper = wrapper(cb);
+      var strings = values.toArray(String[]::new);
+      if (cb instanceof HibernateCriteriaBuilder hibernateCriteriaBuilder) {
+        var array = parameterized ? hibernateCriteriaBuilder.value(strings) : hibernateCriteriaBuilder.literal(strings);
+        return anyPredicate(wrapperSql("v"), wrapper.apply((Path<String>) field), array, hibernateCriteriaBuilder);
       }
+      return wrapper.apply((Path<String>) field)
+        .in(Arrays.stream(strings).map(value -> wrapper.apply(termExpression(value, cb))).toArray(Expression[]::new));
     }
-    return cb.or(process(cqlOrNode.getLeftOperand(), cb, root, query),
-      process(cqlOrNode.getRightOperand(), cb, root, query));
+    return null;
+  }
+
+  /**
+   * Create {@code field = any(array)}, each array element being mapped by {@code elementSql} first.
+   *
+   * @param elementSql SQL of an element {@code v}, e.g. {@code lower(v)}
+   */
+  private static Predicate anyPredicate(String elementSql, Expression<?> field, Expression<?> array,
+                                        HibernateCriteriaBuilder cb) {
+    var pattern = "v".equals(elementSql)
+                  ? "? = any(?)"
+                  : "? = any(array(select " + elementSql + " from unnest(?) v))";
+    return cb.isTrue(cb.sql(pattern, Boolean.class, field, array));
+  }
+
+  /**
+   * The SQL of {@link #wrapper(CriteriaBuilder)} applied to {@code sql}.
+   */
+  private String wrapperSql(String sql) {
+    var metadata = getDomainMetadata();
+    var unaccented = metadata.isRespectAccents() ? sql : "f_unaccent(" + sql + ")";
+    return metadata.isRespectCase() ? unaccented : "lower(" + unaccented + ")";
   }
 
-  private Predicate processTerm(CQLTermNode node, CriteriaBuilder cb, Root<E> root, CriteriaQuery<?> query)
+  private Predicate processTerm(CQLTermNode node, CriteriaBuilder cb, Root<E> root, CommonAbstractCriteria query)
     throws QueryValidationException {
     var fieldName = node.getIndex();
     if (Strings.CI.startsWith(fieldName, "cql")) {
-      if ("cql.allRecords".equalsIgnoreCase(fieldName)) {
+      if (ALL_RECORDS_INDEX.equalsIgnoreCase(fieldName)) {
         return cb.and();
       } else {
         throw createUnsupportedException(node);
       }
     }
 
-    if (!fieldName.contains(".") && isEmpty(node.getRelation().getModifiers())) {
-      try {
-        var attribute = root.getModel().getAttribute(fieldName);
-        if (attribute instanceof PluralAttribute) {
-          return buildCollectionMemberPredicate(node, root, cb);
-        }
-      } catch (IllegalArgumentException ignored) {
-        // attribute not found in metamodel, fall through to standard path resolution
+    var metadata = getMetadata(domainClass, root.getModel());
+    var dotIdx = fieldName.indexOf('.');
+    var attributeName = dotIdx < 0 ? fieldName : fieldName.substring(0, dotIdx);
+    if (dotIdx > 0 && metadata.isJsonb(attributeName)) {
+      return jsonbPredicate(node, root.get(attributeName), fieldName.substring(dotIdx + 1), cb);
+    }
+    if (dotIdx < 0 && isEmpty(node.getRelation().getModifiers())) {
+      var pluralAttribute = metadata.getPluralAttribute(fieldName);
+      if (pluralAttribute != null) {
+        return buildCollectionMemberPredicate(node, pluralAttribute, root, cb);
       }
     }
 
-    var field = getPath(node, root);
     var cqlModifiers = new CqlModifiers(node);
-    if (!isEmpty(cqlModifiers.getRelationModifiers())) {
-      query.distinct(true);
+    if (!isEmpty(cqlModifiers.getRelationModifiers())
+        || dotIdx >= 0 && (metadata.getPluralAttribute(attributeName) != null || !(query instanceof CriteriaQuery))) {
+      return existsPredicate(node, cqlModifiers, attributeName, root, cb, query);
+    }
+
+    return indexNode(getPath(fieldName, root), node, cqlModifiers, cb);
+  }
+
+  /**
+   * Search a collection, or a relation with modifiers, with a correlated {@code EXISTS (SELECT 1 ...)} subquery
+   * instead of a join, so that the query returns each entity once without {@code DISTINCT} and PostgreSQL can stop
+   * after the requested page. Each term gets its own subquery: like the separate joins before, two terms on the
+   * same collection may match different elements. Update and delete statements can't join, they search all
+   * relations this way.
+   */
+  private Predicate existsPredicate(CQLTermNode node, CqlModifiers modifiers, String attributeName, Root<E> root,
+                                    CriteriaBuilder cb, CommonAbstractCriteria query)
+    throws QueryValidationException {
+    var subquery = query.subquery(Integer.class);
+    var children = subquery.correlate(root).join(attributeName);
+    var fieldName = node.getIndex();
+    var field = fieldName.length() == attributeName.length()
+                ? children
+                : children.get(fieldName.substring(attributeName.length() + 1));
+    subquery.select(cb.literal(1)).where(indexNode(field, node, modifiers, cb));
+    return cb.exists(subquery);
+  }
+
+  /**
+   * Search a key of a {@link JsonbIndexed} attribute. Equality without wildcards is a containment test that a GIN
+   * index can answer, the other relations compare the text of the key, or its number with the {@code number}
+   * modifier.
+   *
+   * @param key dotted path of the key within the jsonb document
+   */
+  private Predicate jsonbPredicate(CQLTermNode node, Path<?> column, String key, CriteriaBuilder cb)
+    throws QueryValidationException {
+    if (!(cb instanceof HibernateCriteriaBuilder hibernateCriteriaBuilder)) {
+      throw new CQLFeatureUnsupportedException("CQL: jsonb fields need Hibernate, field: " + node.getIndex());
+    }
+    var keys = key.split("\\.", -1);
+    if (!Arrays.stream(keys).allMatch(k -> JSONB_KEY_PATTERN.matcher(k).matches())) {
+      throw new CqlQueryValidationException("Invalid jsonb key: " + node.getIndex());
+    }
+
+    var comparator = node.getRelation().getBase().toLowerCase();
+    var term = node.getTerm();
+    var number = new CqlModifiers(node).getCqlTermFormat() == NUMBER;
+    var value = unmask(term);
+    if (Strings.CS.equalsAny(comparator, "=", "==") && !term.isEmpty() && value != null) {
+      if (number) {
+        toNumber(value);
+      }
+      var contained = jsonbObject(keys, number ? "cast(? as numeric)" : "cast(? as text)");
+      return cb.isTrue(hibernateCriteriaBuilder.sql("? @> " + contained, Boolean.class, column,
+        termExpression(value, cb)));
+    }
+
+    var text = jsonbText(keys);
+    if (number) {
+      return toPredicate(hibernateCriteriaBuilder.sql("cast(" + text + " as numeric)", BigDecimal.class, column),
+        toNumber(term), comparator, cb);
+    }
+    var field = hibernateCriteriaBuilder.sql(text, String.class, column);
+    if (Strings.CS.equalsAny(comparator, "=", "==") && term.isEmpty()) {
+      return definedOrDefinedAndEmptyQuery(field, comparator, cb);
+    }
+    return switch (comparator) {
+      case "=", "==", NOT_EQUALS_OPERATOR -> queryByLike(field, term, comparator, cb);
+      case "<", ">", "<=", ">=" -> processStringType(field, term, comparator, cb);
+      default -> throw unsupportedOperatorException(comparator);
+    };
+  }
+
+  /**
+   * Return the SQL of a jsonb object with the value at the path of the keys, {@code ?} for the jsonb column.
+   */
+  private static String jsonbObject(String[] keys, String valueSql) {
+    var sql = valueSql;
+    for (int i = keys.length - 1; i >= 0; i--) {
+      sql = "jsonb_build_object('" + keys[i] + "', " + sql + ")";
+    }
+    return sql;
+  }
+
+  /**
+   * Return the SQL of the text of the key at the path of the keys, {@code ?} for the jsonb column.
+   */
+  private static String jsonbText(String[] keys) {
+    var sql = new StringBuilder("?");
+    for (int i = 0; i < keys.length - 1; i++) {
+      sql.append("->'").append(keys[i]).append('\'');
+    }
+    return sql.append("->>'").append(keys[keys.length - 1]).append('\'').toString();
+  }
+
+  /**
+   * Remove the CQL masking backslashes from the term, {@code null} if the term has wildcards or anchors.
+   */
+  private static String unmask(String term) {
+    var result = new StringBuilder(term.length());
+    for (int i = 0; i < term.length(); i++) {
+      var c = term.charAt(i);
+      if (c == '*' || c == '?' || c == '^') {
+        return null;
+      }
+      if (c == '\\' && i + 1 < term.length()) {
+        c = term.charAt(++i);
+      }
+      result.append(c);
+    }
+    return result.toString();
+  }
+
+  private static BigDecimal toNumber(String term) throws QueryValidationException {
+    try {
+      return new BigDecimal(term);
+    } catch (NumberFormatException e) {
+      throw new QueryValidationException("CQL: Invalid number: " + term);
     }
-    return indexNode(field, node, cqlModifiers, cb);
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
-  private Predicate buildCollectionMemberPredicate(CQLTermNode node, Root<E> root, CriteriaBuilder cb)
+  private Predicate buildCollectionMemberPredicate(CQLTermNode node, PluralAttribute<?, ?, ?> pluralAttribute,
+                                                   Root<E> root, CriteriaBuilder cb)
     throws QueryValidationException {
     var fieldName = node.getIndex();
     var comparator = node.getRelation().getBase().toLowerCase();
     var term = node.getTerm();
 
-    var pluralAttribute = (PluralAttribute<?, ?, ?>) root.getModel().getAttribute(fieldName);
     var elementJavaType = pluralAttribute.getElementType().getJavaType();
 
     Object memberValue;
@@ -359,18 +955,22 @@ public class Cql2JpaCriteria<E> {
     };
   }
 
-  private Path<?> getPath(CQLTermNode node, Root<E> root) {
-    var fieldName = node.getIndex();
-    if (fieldName.contains(".")) {
-      final var dotIdx = fieldName.indexOf(".");
-      final var attributeName = fieldName.substring(0, dotIdx);
-      var children = root.join(attributeName, JoinType.LEFT);
-      return children.get(fieldName.substring(dotIdx + 1));
-    } else if (!isEmpty(node.getRelation().getModifiers())) {
-      return root.join(fieldName, JoinType.INNER);
-    } else {
+  /**
+   * Return the path of a field of the entity or of an entity it references. Terms and sort keys on the same
+   * reference share one LEFT JOIN, which returns the same row for each of them.
+   */
+  private Path<?> getPath(String fieldName, Root<E> root) {
+    if (!fieldName.contains(".")) {
       return root.get(fieldName);
     }
+
+    final var dotIdx = fieldName.indexOf(".");
+    final var attributeName = fieldName.substring(0, dotIdx);
+    var children = root.getJoins().stream()
+      .filter(join -> join.getJoinType() == JoinType.LEFT && attributeName.equals(join.getAttribute().getName()))
+      .findFirst()
+      .orElseGet(() -> root.join(attributeName, JoinType.LEFT));
+    return children.get(fieldName.substring(dotIdx + 1));
   }
 
   private static <G extends Comparable<? super G>> Predicate toPredicate(Expression<G> field, G value,
@@ -429,13 +1029,19 @@ public class Cql2JpaCriteria<E> {
       case "=" -> modifiers.getCqlTermFormat() == NUMBER
                   ? queryBySql(field, term, comparator, cb)
                   : buildQuery(field, term, comparator, cb);
-      case "adj", "all", "any", "==", NOT_EQUALS_OPERATOR -> buildQuery(field, term, comparator, cb);
+      case "adj", "all", "any" -> {
+        var fullTextIndexed = getFullTextIndexed(field, node, cb);
+        yield fullTextIndexed == null
+              ? buildQuery(field, term, comparator, cb)
+              : queryByFullText(field, term, comparator, fullTextIndexed.config(), (HibernateCriteriaBuilder) cb);
+      }
+      case "==", NOT_EQUALS_OPERATOR -> buildQuery(field, term, comparator, cb);
       case "<", ">", "<=", ">=" -> queryBySql(field, node.getTerm(), comparator, cb);
       default -> throw new CQLFeatureUnsupportedException("Relation " + comparator + " not implemented yet: " + node);
     };
   }
 
-  private Predicate definedOrDefinedAndEmptyQuery(Path<?> field, String comparator, CriteriaBuilder cb) {
+  private Predicate definedOrDefinedAndEmptyQuery(Expression<?> field, String comparator, CriteriaBuilder cb) {
     boolean isString = String.class.equals(field.getJavaType());
     if ("==".equals(comparator) && isString) {
       return cb.and(cb.isNotNull(field), cb.equal(field, ""));
@@ -471,25 +1077,45 @@ public class Cql2JpaCriteria<E> {
 
   private String getFieldNameByModifier(Path<?> entity, Modifier modifier) {
     var typeName = modifier.getType().substring(1);
-    var modelFields = entity.getModel().getBindableJavaType().getDeclaredFields();
-    var fieldNamesForAttribute =
-      Arrays.stream(modelFields).map(Field::getName)
-        .filter(name -> name.equalsIgnoreCase(typeName)).toList();
-    if (isEmpty(fieldNamesForAttribute) || fieldNamesForAttribute.size() > 1) {
+    var model = entity.getModel();
+    var managedType = model instanceof ManagedType<?> type ? type : null;
+    var fieldName = getMetadata(model.getBindableJavaType(), managedType).getFieldNameIgnoreCase(typeName);
+    if (fieldName == null) {
       throw new CqlQueryValidationException(format("Query contains nonExisting field [%s]", typeName));
     }
-    return fieldNamesForAttribute.getFirst();
+    return fieldName;
+  }
+
+  private CQLNode parseCql(String cql) {
+    var node = monitor == null
+               ? parserCache.parse(cql)
+               : monitor.record(CqlQueryMonitor.Stage.PARSE, cql, () -> parserCache.parse(cql));
+    if (costPolicy != null) {
+      costPolicy.check(node);
+    }
+    return node;
+  }
+
+  private CqlEntityMetadata getDomainMetadata() {
+    return metadataByType.computeIfAbsent(domainClass, key -> {
+      var metamodel = em.getMetamodel();
+      return CqlEntityMetadata.of(key, metamodel == null ? null : metamodel.managedType(key));
+    });
+  }
+
+  private CqlEntityMetadata getMetadata(Class<?> type, ManagedType<?> model) {
+    return metadataByType.computeIfAbsent(type, key -> CqlEntityMetadata.of(key, model));
   }
 
   /**
    * Create an SQL expression using LIKE query syntax.
    */
-  private Predicate queryByLike(Path<String> field0, String term0, String comparator,
+  private Predicate queryByLike(Expression<String> field0, String term0, String comparator,
                                 CriteriaBuilder cb) {
 
     var wrapper = wrapper(cb);
     var field = wrapper.apply(field0);
-    var term = wrapper.apply(cb.literal(cql2like(term0)));
+    var term = wrapper.apply(termExpression(cql2like(term0), cb));
     if (NOT_EQUALS_OPERATOR.equals(comparator)) {
       return cb.notLike(field, term, '\\');
     } else {
@@ -497,6 +1123,61 @@ public class Cql2JpaCriteria<E> {
     }
   }
 
+  /**
+   * Return the {@link FullTextIndexed} annotation of the field if the term can be searched with full-text search.
+   */
+  private FullTextIndexed getFullTextIndexed(Path<?> field, CQLTermNode node, CriteriaBuilder cb) {
+    var term = node.getTerm();
+    if (!(cb instanceof HibernateCriteriaBuilder) || StringUtils.containsAny(term, '*', '?')
+      || field.getParentPath() == null || !String.class.equals(field.getJavaType())) {
+      return null;
+    }
+
+    var attributeName = StringUtils.substringAfterLast(node.getIndex(), ".");
+    var parentModel = field.getParentPath().getModel();
+    return getMetadata(field.getParentPath().getJavaType(),
+      parentModel instanceof ManagedType<?> managedType ? managedType : null)
+      .getFullTextIndexed(attributeName.isEmpty() ? node.getIndex() : attributeName);
+  }
+
+  /**
+   * Create a full-text search expression: {@code adj} matches the words as a phrase, {@code all} matches all words
+   * and {@code any} matches at least one word.
+   */
+  @SuppressWarnings("unchecked")
+  private Predicate queryByFullText(Path<?> field, String term, String comparator, String config,
+                                    HibernateCriteriaBuilder cb) {
+    var wrapper = accentWrapper(cb);
+    var document = wrapper.apply((Path<String>) field);
+    if ("any".equals(comparator)) {
+      var words = StringUtils.split(term);
+      return cb.or(Arrays.stream(words)
+        .map(word -> tsMatch(cb, FullTextSearch.match(config, "plainto_tsquery"), document,
+          wrapper.apply(termExpression(word, cb))))
+        .toArray(Predicate[]::new));
+    }
+
+    var tsqueryFunction = "adj".equals(comparator) ? "phraseto_tsquery" : "plainto_tsquery";
+    return tsMatch(cb, FullTextSearch.match(config, tsqueryFunction), document,
+      wrapper.apply(termExpression(term, cb)));
+  }
+
+  private static Predicate tsMatch(HibernateCriteriaBuilder cb, String pattern, Expression<String> document,
+                                   Expression<String> query) {
+    return cb.isTrue(cb.sql(pattern, Boolean.class, document, query));
+  }
+
+  /**
+   * Create the expression for a string search term: a bound query parameter in parameterized mode
+   * and an SQL literal otherwise.
+   */
+  private Expression<String> termExpression(String term, CriteriaBuilder cb) {
+    if (parameterized && cb instanceof HibernateCriteriaBuilder hibernateCriteriaBuilder) {
+      return hibernateCriteriaBuilder.value(term);
+    }
+    return cb.literal(term);
+  }
+
   /**
    * Convert an CQL string into an SQL LIKE string.
    */
@@ -504,12 +1185,23 @@ public class Cql2JpaCriteria<E> {
     return Cql2SqlUtil.cql2like(cqlString).replace("''", "'");
   }
 
+  /**
+   * Remove accents unless the entity respects them; full-text search always ignores case.
+   */
+  private UnaryOperator<Expression<String>> accentWrapper(CriteriaBuilder cb) {
+    if (getDomainMetadata().isRespectAccents()) {
+      return UnaryOperator.identity();
+    }
+    return expression -> cb.function(FullTextSearch.UNACCENT_FUNCTION, String.class, expression);
+  }
+
   /**
    * A wrapper with functions lower and/or f_unaccent as needed for {@link #domainClass}.
    */
   private UnaryOperator<Expression<String>> wrapper(CriteriaBuilder cb) {
-    var respectAccents = domainClass.getAnnotation(RespectAccents.class) != null;
-    var respectCase = domainClass.getAnnotation(RespectCase.class) != null;
+    var metadata = getDomainMetadata();
+    var respectAccents = metadata.isRespectAccents();
+    var respectCase = metadata.isRespectCase();
     if (respectAccents) {
       if (respectCase) {
         return UnaryOperator.identity();
@@ -530,7 +1222,7 @@ public class Cql2JpaCriteria<E> {
     throws QueryValidationException {
     var wrapper = wrapper(cb);
     field = wrapper.apply(field);
-    var termExpression = wrapper.apply(cb.literal(cql2like(term.toString())));
+    var termExpression = wrapper.apply(termExpression(cql2like(term.toString()), cb));
     return toPredicate(field, termExpression, comparator, cb);
   }
 
@@ -559,4 +1251,12 @@ public class Cql2JpaCriteria<E> {
     var dateTimeTo = LocalDate.parse(dates[1]).atStartOfDay();
     return cb.and(cb.greaterThanOrEqualTo(field, dateTimeFrom), cb.lessThan(field, dateTimeTo));
   }
+
+  private record KeysetKey(Expression<?> expression, boolean descending, boolean nullsFirst, boolean nullable) {
+
+    Order toOrder(CriteriaBuilder cb) {
+      var nulls = nullsFirst ? Nulls.FIRST : Nulls.LAST;
+      return descending ? cb.desc(expression, nulls) : cb.asc(expression, nulls);
+    }
+  }
 }
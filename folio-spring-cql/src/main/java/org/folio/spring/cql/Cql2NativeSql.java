@@ -0,0 +1,716 @@
+package org.folio.spring.cql;
+
+import static org.springframework.util.CollectionUtils.isEmpty;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+import org.folio.cql2pgjson.exception.CQLFeatureUnsupportedException;
+import org.folio.cql2pgjson.model.CqlModifiers;
+import org.folio.cql2pgjson.model.CqlSort;
+import org.folio.cql2pgjson.util.Cql2SqlUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.BasicValuedModelPart;
+import org.hibernate.metamodel.mapping.PluralAttributeMapping;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Pageable;
+import org.z3950.zing.cql.CQLAndNode;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLNotNode;
+import org.z3950.zing.cql.CQLOrNode;
+import org.z3950.zing.cql.CQLSortNode;
+import org.z3950.zing.cql.CQLTermNode;
+import org.z3950.zing.cql.ModifierSet;
+
+/**
+ * Compiles CQL queries directly into native PostgreSQL SQL for entities mapped to a single table, skipping the
+ * Criteria tree that {@link Cql2JpaCriteria} builds and Hibernate renders for every query.
+ *
+ * <p>The SQL has the semantics of {@link Cql2JpaCriteria}: the same case and accent wrappers, date ranges, enum
+ * text casts and element collection membership. All search terms are bound as parameters. Queries that need
+ * joins, e.g. on dotted paths or with relation modifiers, and terms the compiler cannot translate are left to
+ * {@link Cql2JpaCriteria}: the compiler returns {@code null} for them.
+ */
+@Log4j2
+public class Cql2NativeSql<E> {
+
+  /**
+   * Column with the index of the request of a row selected by {@link #toSelectQuery(List)}.
+   */
+  public static final String REQUEST_COLUMN = "cql_request";
+
+  /**
+   * Column with the id of a row selected by {@link #toSelectQuery(String, Pageable, List)}.
+   */
+  public static final String ID_COLUMN = "cql_id";
+
+  /**
+   * Column with the index of the schema of a row selected by {@link #toSelectQuery(String, Pageable, List)}.
+   */
+  public static final String TENANT_COLUMN = "cql_tenant";
+
+  private static final String ALIAS = "t";
+  private static final String ALL_RECORDS_INDEX = "cql.allRecords";
+  private static final String NOT_EQUALS_OPERATOR = "<>";
+  private static final Pattern DATES_RANGE_PATTERN = Pattern.compile("\\d{4}(-\\d{2}){2}:\\d{4}(-\\d{2}){2}");
+  private static final Pattern SCHEMA_PATTERN = Pattern.compile("[A-Za-z_]\\w*");
+
+  private final CqlParserCache parserCache;
+  private final CqlEntityMetadata metadata;
+  private final TableMapping table;
+  private CqlCostPolicy costPolicy;
+
+  public Cql2NativeSql(Class<E> domainClass, EntityManager entityManager, CqlParserCache parserCache) {
+    this(domainClass, TableMapping.of(entityManager, domainClass), parserCache);
+  }
+
+  Cql2NativeSql(Class<E> domainClass, TableMapping table, CqlParserCache parserCache) {
+    this.parserCache = parserCache;
+    this.metadata = CqlEntityMetadata.of(domainClass, null);
+    this.table = table;
+    if (table == null) {
+      log.info("Cql2NativeSql:: {} is not mapped to a single table, CQL queries use Criteria queries",
+        domainClass.getSimpleName());
+    }
+  }
+
+  private Cql2NativeSql(Cql2NativeSql<E> other, TableMapping table) {
+    this.parserCache = other.parserCache;
+    this.metadata = other.metadata;
+    this.table = table;
+    this.costPolicy = other.costPolicy;
+  }
+
+  /**
+   * Set the policy that rejects too expensive queries before they are compiled.
+   *
+   * @param costPolicy cost policy, {@code null} to accept all queries
+   */
+  public void setCostPolicy(CqlCostPolicy costPolicy) {
+    this.costPolicy = costPolicy;
+  }
+
+  /**
+   * Compile the CQL query into a native query selecting all columns of the entity table, sorted as requested.
+   *
+   * @param cql the query to convert
+   * @return the native query, {@code null} if the query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   */
+  public SqlQuery toSelectQuery(String cql) {
+    return compile(cql, "SELECT " + ALIAS + ".* FROM ", true);
+  }
+
+  /**
+   * Compile the page requests into one native query selecting the pages of all requests with {@code UNION ALL}.
+   * Each row has the index of its request in the column {@value #REQUEST_COLUMN}.
+   *
+   * @param requests queries and pages to select
+   * @return the native query, {@code null} if a query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if a query cannot be parsed
+   */
+  public SqlQuery toSelectQuery(List<CqlPageRequest> requests) {
+    return toSelectQuery(requests, 0);
+  }
+
+  /**
+   * Compile the page requests into one native query selecting the pages of all requests with {@code UNION ALL}, each
+   * with up to {@code lookAhead} rows more than its page size to tell whether it has a next page.
+   * Each row has the index of its request in the column {@value #REQUEST_COLUMN}.
+   *
+   * @param requests  queries and pages to select
+   * @param lookAhead number of rows to select after each page
+   * @return the native query, {@code null} if a query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if a query cannot be parsed
+   */
+  public SqlQuery toSelectQuery(List<CqlPageRequest> requests, int lookAhead) {
+    if (table == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var union = new StringJoiner(" UNION ALL ");
+    for (int i = 0; i < requests.size(); i++) {
+      var request = requests.get(i);
+      var select = compile(request.getCql(), "SELECT " + ALIAS + ".*, " + i + " AS " + REQUEST_COLUMN + " FROM ",
+        true, parameters);
+      if (select == null) {
+        return null;
+      }
+      var pageable = request.getPageable();
+      union.add("(" + select + " LIMIT " + parameter(pageable.getPageSize() + lookAhead, parameters)
+                + " OFFSET " + parameter(pageable.getOffset(), parameters) + ")");
+    }
+    return new SqlQuery(union.toString(), List.copyOf(parameters));
+  }
+
+  /**
+   * Compile the CQL query into one native query selecting the ids of a page of the rows matching in the entity tables
+   * of all schemas with {@code UNION ALL}, sorted as requested, then by schema and by id, so that consecutive pages
+   * neither skip nor repeat rows. Each row has the id in the column {@value #ID_COLUMN} and the index of its schema
+   * in the column {@value #TENANT_COLUMN}; {@link #toSelectByIdQuery} selects the rows of a schema by these ids.
+   *
+   * <p>Each schema contributes its first offset + size matching rows, so that deep pages select more rows.
+   *
+   * @param cql      the query to convert
+   * @param pageable offset and size of the page
+   * @param schemas  schemas to select from, not empty
+   * @return the native query, {@code null} if the query has to be converted with {@link Cql2JpaCriteria} or the
+   *     entity has no single id column
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   * @throws IllegalArgumentException    if a schema name is not a plain SQL identifier
+   */
+  public SqlQuery toSelectQuery(String cql, Pageable pageable, List<String> schemas) {
+    var id = table == null || table.idAttribute() == null ? null : table.columns().get(table.idAttribute());
+    if (id == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var union = new StringJoiner(" UNION ALL ");
+    for (int i = 0; i < schemas.size(); i++) {
+      var select = inSchema(schemas.get(i)).compile(cql,
+        "SELECT " + ALIAS + ".*, " + i + " AS " + TENANT_COLUMN + " FROM ", id.sql(), parameters);
+      if (select == null) {
+        return null;
+      }
+      union.add("(" + select + " LIMIT " + parameter(pageable.getOffset() + pageable.getPageSize(), parameters) + ")");
+    }
+    var orderBy = parserCache.parse(cql) instanceof CQLSortNode sortNode ? toOrderBy(sortNode) + ", " : "";
+    return new SqlQuery("SELECT " + id.sql() + " AS " + ID_COLUMN + ", " + TENANT_COLUMN + " FROM (" + union + ") "
+                        + ALIAS + " ORDER BY " + orderBy + TENANT_COLUMN + ", " + id.sql()
+                        + " LIMIT " + parameter(pageable.getPageSize(), parameters)
+                        + " OFFSET " + parameter(pageable.getOffset(), parameters), List.copyOf(parameters));
+  }
+
+  /**
+   * Compile a native query selecting all columns of the rows of the entity table in the schema that have one of the
+   * ids.
+   *
+   * @param schema schema to select from
+   * @param ids    ids of the rows, not empty
+   * @return the native query, {@code null} if the entity has no single id column
+   * @throws IllegalArgumentException if the schema name is not a plain SQL identifier
+   */
+  public SqlQuery toSelectByIdQuery(String schema, List<?> ids) {
+    var id = table == null || table.idAttribute() == null ? null : table.columns().get(table.idAttribute());
+    if (id == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var values = new StringJoiner(", ", "(", ")");
+    ids.forEach(value -> values.add(parameter(value, parameters)));
+    return new SqlQuery("SELECT " + ALIAS + ".* FROM " + inSchema(schema).table.name() + " " + ALIAS + " WHERE "
+                        + id.sql() + " IN " + values, List.copyOf(parameters));
+  }
+
+  /**
+   * Compile the CQL query into a native query counting the matching rows of the entity table.
+   *
+   * @param cql the query to convert
+   * @return the native query, {@code null} if the query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   */
+  public SqlQuery toCountQuery(String cql) {
+    return compile(cql, "SELECT count(*) FROM ", false);
+  }
+
+  /**
+   * Compile the CQL queries into one native query returning a row with the count of the matching rows of each
+   * query.
+   *
+   * @param cqls the queries to convert
+   * @return the native query, {@code null} if a query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if a query cannot be parsed
+   */
+  public SqlQuery toCountQuery(List<String> cqls) {
+    if (table == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var counts = new StringJoiner(", ", "SELECT ", "");
+    for (int i = 0; i < cqls.size(); i++) {
+      var count = compile(cqls.get(i), "SELECT count(*) FROM ", false, parameters);
+      if (count == null) {
+        return null;
+      }
+      counts.add("(" + count + ") AS count" + i);
+    }
+    return new SqlQuery(counts.toString(), List.copyOf(parameters));
+  }
+
+  /**
+   * Compile the CQL query into one native query returning the number of matching rows in the entity tables of all
+   * schemas.
+   *
+   * @param cql     the query to convert
+   * @param schemas schemas to count in, not empty
+   * @return the native query, {@code null} if the query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   * @throws IllegalArgumentException    if a schema name is not a plain SQL identifier
+   */
+  public SqlQuery toCountQuery(String cql, List<String> schemas) {
+    if (table == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var sum = new StringJoiner(" + ", "SELECT ", "");
+    for (var schema : schemas) {
+      var count = inSchema(schema).compile(cql, "SELECT count(*) FROM ", false, parameters);
+      if (count == null) {
+        return null;
+      }
+      sum.add("(" + count + ")");
+    }
+    return new SqlQuery(sum.toString(), List.copyOf(parameters));
+  }
+
+  /**
+   * Compile the CQL query into a native query counting at most {@code limit} matching rows of the entity table. The
+   * count is taken over a subquery with {@code LIMIT}, so that the database stops after {@code limit} rows.
+   *
+   * @param cql   the query to convert
+   * @param limit maximum number of rows to count
+   * @return the native query, {@code null} if the query has to be converted with {@link Cql2JpaCriteria}
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   */
+  public SqlQuery toCountQuery(String cql, int limit) {
+    if (table == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var select = compile(cql, "SELECT 1 FROM ", false, parameters);
+    if (select == null) {
+      return null;
+    }
+    return new SqlQuery("SELECT count(*) FROM (" + select + " LIMIT " + parameter(limit, parameters) + ") c",
+      List.copyOf(parameters));
+  }
+
+  private Cql2NativeSql<E> inSchema(String schema) {
+    if (schema == null || !SCHEMA_PATTERN.matcher(schema).matches()) {
+      throw new IllegalArgumentException("Invalid schema name: " + schema);
+    }
+    return new Cql2NativeSql<>(this, table.inSchema(schema));
+  }
+
+  private SqlQuery compile(String cql, String select, boolean sorted) {
+    if (table == null) {
+      return null;
+    }
+
+    var parameters = new ArrayList<>();
+    var sql = compile(cql, select, sorted, parameters);
+    return sql == null ? null : new SqlQuery(sql, List.copyOf(parameters));
+  }
+
+  private String compile(String cql, String select, boolean sorted, List<Object> parameters) {
+    return sorted ? compile(cql, select, "", parameters) : compile(cql, select, null, parameters);
+  }
+
+  /**
+   * Compile the query, sorted by its sort keys followed by {@code tiebreaker} unless the tiebreaker is {@code null}.
+   *
+   * @param tiebreaker SQL of the last sort key, empty for none, {@code null} to not sort
+   */
+  private String compile(String cql, String select, String tiebreaker, List<Object> parameters) {
+    var node = parserCache.parse(cql);
+    if (costPolicy != null) {
+      costPolicy.check(node);
+    }
+    var sortNode = node instanceof CQLSortNode cqlSortNode ? cqlSortNode : null;
+    try {
+      var sql = new StringBuilder(select).append(table.name()).append(' ').append(ALIAS)
+        .append(" WHERE ").append(toSql(sortNode == null ? node : sortNode.getSubtree(), parameters));
+      if (tiebreaker != null) {
+        var orderBy = new StringJoiner(", ");
+        if (sortNode != null) {
+          orderBy.add(toOrderBy(sortNode));
+        }
+        if (!tiebreaker.isEmpty()) {
+          orderBy.add(tiebreaker);
+        }
+        if (orderBy.length() > 0) {
+          sql.append(" ORDER BY ").append(orderBy);
+        }
+      }
+      return sql.toString();
+    } catch (UnsupportedQueryException e) {
+      log.debug("compile:: Using Criteria query [cql: {}, reason: {}]", cql, e.getMessage());
+      return null;
+    }
+  }
+
+  private String toSql(CQLNode node, List<Object> parameters) {
+    return switch (node) {
+      case CQLTermNode termNode -> termToSql(termNode, parameters);
+      case CQLAndNode andNode -> {
+        var and = new StringJoiner(" AND ", "(", ")");
+        CqlNodes.flatten(andNode).forEach(operand -> and.add(toSql(operand, parameters)));
+        yield and.toString();
+      }
+      case CQLOrNode orNode -> orToSql(orNode, parameters);
+      case CQLNotNode notNode -> "(" + toSql(notNode.getLeftOperand(), parameters) + " AND NOT "
+                                 + toSql(notNode.getRightOperand(), parameters) + ")";
+      default -> throw new UnsupportedQueryException("node type " + node.getClass().getSimpleName());
+    };
+  }
+
+  private String orToSql(CQLOrNode node, List<Object> parameters) {
+    var or = new StringJoiner(" OR ", "(", ")");
+    for (var group : CqlNodes.groupEqualityTerms(CqlNodes.flatten(node)).entrySet()) {
+      var anySql = group.getKey() != null && group.getValue().size() > 1
+                   ? anySql(group.getKey(), group.getValue(), parameters)
+                   : null;
+      if (anySql != null) {
+        or.add(anySql);
+      } else {
+        group.getValue().forEach(operand -> or.add(toSql(operand, parameters)));
+      }
+    }
+    return or.toString();
+  }
+
+  /**
+   * Search ORed equality terms on the same field with one array parameter, e.g. {@code id==a or id==b} becomes
+   * {@code t.id = ANY(?1)}, so that the SQL doesn't depend on the number of terms.
+   *
+   * @return the SQL, {@code null} if the field is a collection or its type doesn't allow it
+   */
+  private String anySql(String fieldName, List<CQLNode> terms, List<Object> parameters) {
+    var column = table.columns().get(fieldName);
+    if (column == null) {
+      return null;
+    }
+
+    var values = terms.stream().map(term -> ((CQLTermNode) term).getTerm());
+    if (UUID.class.equals(column.javaType())) {
+      return column.sql() + " = ANY(" + parameter(values.map(UUID::fromString).toArray(UUID[]::new), parameters)
+             + ")";
+    }
+    if (String.class.equals(column.javaType())) {
+      var wrapper = wrapper();
+      var array = parameter(values.toArray(String[]::new), parameters);
+      return metadata.isRespectCase() && metadata.isRespectAccents()
+             ? column.sql() + " = ANY(" + array + ")"
+             : wrapper.apply(column.sql()) + " = ANY(ARRAY(SELECT " + wrapper.apply("v") + " FROM unnest(" + array
+               + ") v))";
+    }
+    return null;
+  }
+
+  private String termToSql(CQLTermNode node, List<Object> parameters) {
+    var index = node.getIndex();
+    if (Strings.CI.startsWith(index, "cql")) {
+      if (ALL_RECORDS_INDEX.equalsIgnoreCase(index)) {
+        return "TRUE";
+      }
+      throw new UnsupportedQueryException("index " + index);
+    }
+    if (index.contains(".") || !isEmpty(node.getRelation().getModifiers())) {
+      throw new UnsupportedQueryException("join required by " + index);
+    }
+
+    var collection = table.collections().get(index);
+    if (collection != null) {
+      return collectionMemberSql(collection, node, parameters);
+    }
+    var column = table.columns().get(index);
+    if (column == null) {
+      throw new UnsupportedQueryException("unknown column " + index);
+    }
+
+    var comparator = node.getRelation().getBase().toLowerCase();
+    var term = node.getTerm();
+    var isString = String.class.equals(column.javaType());
+    if (Strings.CS.equalsAny(comparator, "=", "==") && StringUtils.isEmpty(term)) {
+      var defined = column.sql() + " IS NOT NULL";
+      return "==".equals(comparator) && isString ? "(" + defined + " AND " + column.sql() + " = '')" : defined;
+    }
+
+    return switch (comparator) {
+      case "=", "==", NOT_EQUALS_OPERATOR -> isString
+                                             ? likeSql(column, term, comparator, parameters)
+                                             : valueSql(column, term, comparator, parameters);
+      case "adj", "all", "any" -> termMatchSql(column, index, term, comparator, parameters);
+      case "<", ">", "<=", ">=" -> valueSql(column, term, comparator, parameters);
+      default -> throw new UnsupportedQueryException("relation " + comparator);
+    };
+  }
+
+  private String termMatchSql(Column column, String index, String term, String comparator,
+                              List<Object> parameters) {
+    if (!String.class.equals(column.javaType())) {
+      return valueSql(column, term, comparator, parameters);
+    }
+    var fullTextIndexed = metadata.getFullTextIndexed(index);
+    if (fullTextIndexed == null || StringUtils.containsAny(term, '*', '?')) {
+      return likeSql(column, term, comparator, parameters);
+    }
+
+    var config = fullTextIndexed.config();
+    var document = accentWrapper().apply(column.sql());
+    if ("any".equals(comparator)) {
+      var words = StringUtils.split(term);
+      if (words.length == 0) {
+        return "FALSE";
+      }
+      var match = new StringJoiner(" OR ", "(", ")");
+      Arrays.stream(words).forEach(word -> match.add(FullTextSearch.match(config, "plainto_tsquery", document,
+        accentWrapper().apply(parameter(word, parameters)))));
+      return match.toString();
+    }
+    var tsqueryFunction = "adj".equals(comparator) ? "phraseto_tsquery" : "plainto_tsquery";
+    return FullTextSearch.match(config, tsqueryFunction, document,
+      accentWrapper().apply(parameter(term, parameters)));
+  }
+
+  private String likeSql(Column column, String term, String comparator, List<Object> parameters) {
+    var wrapper = wrapper();
+    var like = NOT_EQUALS_OPERATOR.equals(comparator) ? " NOT LIKE " : " LIKE ";
+    return wrapper.apply(column.sql()) + like + wrapper.apply(parameter(cql2like(term), parameters)) + " ESCAPE '\\'";
+  }
+
+  /**
+   * Compare the column with the term converted to the type of the column, like
+   * {@link Cql2JpaCriteria#queryBySql}.
+   */
+  private String valueSql(Column column, String term, String comparator, List<Object> parameters) {
+    var javaType = column.javaType();
+    if (String.class.equals(javaType)) {
+      var wrapper = wrapper();
+      return wrapper.apply(column.sql()) + operator(comparator)
+             + wrapper.apply(parameter(cql2like(term), parameters));
+    }
+    if ((Date.class.equals(javaType) || Timestamp.class.equals(javaType) || LocalDateTime.class.equals(javaType))
+        && DATES_RANGE_PATTERN.matcher(term).matches()) {
+      var dates = term.split(":");
+      var from = LocalDate.parse(dates[0]).atStartOfDay();
+      var to = LocalDate.parse(dates[1]).atStartOfDay();
+      var dateTime = !LocalDateTime.class.equals(javaType);
+      return "(" + column.sql() + " >= " + parameter(dateTime ? Timestamp.valueOf(from) : from, parameters)
+             + " AND " + column.sql() + " < " + parameter(dateTime ? Timestamp.valueOf(to) : to, parameters) + ")";
+    }
+    if (javaType.isEnum()) {
+      return "text(" + column.sql() + ")" + operator(comparator) + parameter(term, parameters);
+    }
+    return column.sql() + operator(comparator) + parameter(toValue(javaType, term), parameters);
+  }
+
+  private static Object toValue(Class<?> javaType, String term) {
+    if (UUID.class.equals(javaType)) {
+      return UUID.fromString(term);
+    } else if (Boolean.class.equals(javaType)) {
+      return Boolean.valueOf(term);
+    } else if (Date.class.equals(javaType) || Timestamp.class.equals(javaType)) {
+      return Timestamp.valueOf(LocalDateTime.parse(term));
+    } else if (LocalDateTime.class.equals(javaType)) {
+      return LocalDateTime.parse(term);
+    } else if (Number.class.isAssignableFrom(ClassUtils.primitiveToWrapper(javaType))) {
+      try {
+        return DefaultConversionService.getSharedInstance().convert(term, ClassUtils.primitiveToWrapper(javaType));
+      } catch (ConversionException e) {
+        throw new UnsupportedQueryException("term " + term + " of " + javaType.getSimpleName());
+      }
+    }
+    throw new UnsupportedQueryException("type " + javaType.getSimpleName());
+  }
+
+  private static String operator(String comparator) {
+    return switch (comparator) {
+      case ">", "<", ">=", "<=", NOT_EQUALS_OPERATOR -> " " + comparator + " ";
+      case "=", "==" -> " = ";
+      default -> throw new UnsupportedQueryException("operator " + comparator);
+    };
+  }
+
+  private String collectionMemberSql(CollectionTable collection, CQLTermNode node, List<Object> parameters) {
+    var elementType = collection.elementType();
+    var term = node.getTerm();
+    Object member;
+    if (UUID.class.equals(elementType)) {
+      member = UUID.fromString(term);
+    } else if (String.class.equals(elementType)) {
+      member = term;
+    } else if (Integer.class.equals(elementType)) {
+      member = Integer.parseInt(term);
+    } else {
+      throw new UnsupportedQueryException("element type " + elementType.getSimpleName());
+    }
+
+    var exists = "EXISTS (SELECT 1 FROM " + collection.name() + " c WHERE c." + collection.keyColumn() + " = "
+                 + ALIAS + "." + collection.targetColumn() + " AND c." + collection.elementColumn() + " = "
+                 + parameter(member, parameters) + ")";
+    return switch (node.getRelation().getBase()) {
+      case "=", "==" -> exists;
+      case NOT_EQUALS_OPERATOR -> "NOT " + exists;
+      default -> throw new UnsupportedQueryException("collection relation " + node.getRelation().getBase());
+    };
+  }
+
+  private String toOrderBy(CQLSortNode node) {
+    var orderBy = new StringJoiner(", ");
+    for (ModifierSet sortIndex : node.getSortIndexes()) {
+      var column = table.columns().get(sortIndex.getBase());
+      if (column == null) {
+        throw new UnsupportedQueryException("sort key " + sortIndex.getBase());
+      }
+      try {
+        var descending = CqlSort.DESCENDING.equals(
+          new CqlModifiers(CqlNodes.withoutNullOrdering(sortIndex)).getCqlSort());
+        var nulls = switch (CqlNodes.getNullOrdering(sortIndex)) {
+          case FIRST -> " NULLS FIRST";
+          case LAST -> " NULLS LAST";
+          case NONE -> "";
+        };
+        var key = String.class.equals(column.javaType()) ? wrapper().apply(column.sql()) : column.sql();
+        orderBy.add(key + (descending ? " DESC" : " ASC") + nulls);
+      } catch (CQLFeatureUnsupportedException e) {
+        throw new UnsupportedQueryException(e.getMessage());
+      }
+    }
+    return orderBy.toString();
+  }
+
+  /**
+   * Lower case and/or remove accents as needed for the entity, like {@link Cql2JpaCriteria}.
+   */
+  private UnaryOperator<String> wrapper() {
+    var respectCase = metadata.isRespectCase();
+    var unaccent = accentWrapper();
+    return respectCase ? unaccent : expression -> "lower(" + unaccent.apply(expression) + ")";
+  }
+
+  private UnaryOperator<String> accentWrapper() {
+    return metadata.isRespectAccents() ? UnaryOperator.identity() : FullTextSearch::unaccent;
+  }
+
+  private static String parameter(Object value, List<Object> parameters) {
+    parameters.add(value);
+    return "?" + parameters.size();
+  }
+
+  private static String cql2like(String cqlString) {
+    return Cql2SqlUtil.cql2like(cqlString).replace("''", "'");
+  }
+
+  /**
+   * Native SQL query with its positional parameters, {@code ?1} binding the first parameter.
+   *
+   * @param sql        SQL of the query
+   * @param parameters values of the positional parameters
+   */
+  public record SqlQuery(String sql, List<Object> parameters) {
+  }
+
+  record Column(String sql, Class<?> javaType) {
+  }
+
+  record CollectionTable(String name, String keyColumn, String targetColumn, String elementColumn,
+                         Class<?> elementType) {
+  }
+
+  /**
+   * Columns of the entity table by attribute name, resolved once from the Hibernate mapping. The id attribute is
+   * {@code null} for a composite id.
+   */
+  record TableMapping(String name, String idAttribute, Map<String, Column> columns,
+                      Map<String, CollectionTable> collections) {
+
+    static TableMapping of(EntityManager em, Class<?> domainClass) {
+      var persister = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+        .getMappingMetamodel()
+        .getEntityDescriptor(domainClass);
+      if (persister.hasSubclasses() || persister.getSuperMappingType() != null || persister.hasWhereRestrictions()
+          || persister.getSoftDeleteMapping() != null) {
+        return null;
+      }
+
+      var name = persister.getMappedTableDetails().getTableName();
+      var columns = new HashMap<String, Column>();
+      String idAttribute = null;
+      if (persister.getIdentifierMapping() instanceof BasicValuedModelPart id) {
+        idAttribute = persister.getIdentifierMapping().getAttributeName();
+        columns.put(idAttribute, column(id));
+      }
+      var collections = new HashMap<String, CollectionTable>();
+      var singleTable = new boolean[] {true};
+      persister.forEachAttributeMapping(attribute -> {
+        if (attribute instanceof PluralAttributeMapping plural) {
+          addCollectionTable(plural, collections);
+        } else if (attribute instanceof BasicValuedModelPart basic) {
+          singleTable[0] &= name.equals(basic.getContainingTableExpression());
+          if (!basic.isFormula() && isPlainValue(basic)) {
+            columns.put(attribute.getAttributeName(), column(basic));
+          }
+        }
+      });
+      return singleTable[0] ? new TableMapping(name, idAttribute, Map.copyOf(columns), Map.copyOf(collections))
+                            : null;
+    }
+
+    /**
+     * The same mapping with the entity table and the collection tables qualified by the schema.
+     */
+    TableMapping inSchema(String schema) {
+      var schemaCollections = new HashMap<String, CollectionTable>();
+      collections.forEach((attribute, collection) -> schemaCollections.put(attribute,
+        new CollectionTable(schema + "." + collection.name(), collection.keyColumn(), collection.targetColumn(),
+          collection.elementColumn(), collection.elementType())));
+      return new TableMapping(schema + "." + name, idAttribute, columns, Map.copyOf(schemaCollections));
+    }
+
+    private static void addCollectionTable(PluralAttributeMapping plural, Map<String, CollectionTable> collections) {
+      var keyDescriptor = plural.getKeyDescriptor();
+      if (plural.getSeparateCollectionTable() != null
+          && plural.getElementDescriptor() instanceof BasicValuedModelPart element
+          && keyDescriptor.getKeyPart() instanceof BasicValuedModelPart key
+          && keyDescriptor.getTargetPart() instanceof BasicValuedModelPart target) {
+        collections.put(plural.getAttributeName(), new CollectionTable(plural.getSeparateCollectionTable(),
+          key.getSelectionExpression(), target.getSelectionExpression(), element.getSelectionExpression(),
+          element.getJavaType().getJavaTypeClass()));
+      }
+    }
+
+    private static Column column(BasicValuedModelPart part) {
+      return new Column(ALIAS + "." + part.getSelectionExpression(), part.getJavaType().getJavaTypeClass());
+    }
+
+    /**
+     * Attributes with a converter are bound by Hibernate as their converted value, which native SQL cannot do.
+     */
+    private static boolean isPlainValue(BasicValuedModelPart part) {
+      return part.getJdbcMapping().getValueConverter() == null || part.getJavaType().getJavaTypeClass().isEnum();
+    }
+  }
+
+  /**
+   * The query needs a feature of {@link Cql2JpaCriteria}, thrown without a stack trace.
+   */
+  private static final class UnsupportedQueryException extends RuntimeException {
+
+    UnsupportedQueryException(String message) {
+      super(message, null, false, false);
+    }
+  }
+}
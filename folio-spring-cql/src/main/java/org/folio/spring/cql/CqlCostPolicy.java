@@ -0,0 +1,162 @@
+package org.folio.spring.cql;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.Strings;
+import org.springframework.util.ReflectionUtils;
+import org.z3950.zing.cql.CQLBooleanNode;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLSortNode;
+import org.z3950.zing.cql.CQLTermNode;
+
+/**
+ * Rejects CQL queries that are too expensive to run on the shared database, before any predicate is built.
+ *
+ * <p>Every rule is disabled unless configured. The policy can limit the nesting depth of boolean operators, where a
+ * chain of the same operator like {@code a or b or c} counts as one level, the number of search terms and the number
+ * of relation modifiers like {@code /ignoreCase}, which may each add a subquery. Leading wildcards like
+ * {@code *smith} can be restricted to {@link TrigramIndexed} fields and sorting to indexed fields, see
+ * {@link SortIndexed}.
+ */
+public class CqlCostPolicy {
+
+  private final Class<?> domainClass;
+  private final JpaCqlProperties.CostPolicy settings;
+  private final Map<Class<?>, CqlEntityMetadata> metadataByType = new ConcurrentHashMap<>();
+
+  /**
+   * Create the policy for the queries of an entity.
+   *
+   * @param domainClass entity class
+   * @param settings    limits of the policy
+   */
+  public CqlCostPolicy(Class<?> domainClass, JpaCqlProperties.CostPolicy settings) {
+    this.domainClass = domainClass;
+    this.settings = settings;
+  }
+
+  /**
+   * Whether the settings enable any rule, so that queries need to be checked at all.
+   *
+   * @param settings limits of the policy
+   * @return {@code true} if a limit is set or a restriction is enabled
+   */
+  public static boolean isEnabled(JpaCqlProperties.CostPolicy settings) {
+    return settings.getMaxDepth() > 0 || settings.getMaxTerms() > 0 || settings.getMaxModifiers() > 0
+           || settings.isIndexedLeadingWildcardsOnly() || settings.isIndexedSortOnly();
+  }
+
+  /**
+   * Check the parsed query against the policy.
+   *
+   * @param node parsed query
+   * @throws CqlQueryValidationException if the query violates the policy
+   */
+  public void check(CQLNode node) {
+    var root = node;
+    if (node instanceof CQLSortNode sortNode) {
+      if (settings.isIndexedSortOnly()) {
+        sortNode.getSortIndexes().forEach(sortIndex -> checkSortIndex(sortIndex.getBase()));
+      }
+      root = sortNode.getSubtree();
+    }
+    var cost = new Cost();
+    check(root, 1, cost);
+    if (exceeds(cost.terms, settings.getMaxTerms())) {
+      throw new CqlQueryValidationException(
+        "CQL query has more than " + settings.getMaxTerms() + " search terms: " + cost.terms);
+    }
+    if (exceeds(cost.modifiers, settings.getMaxModifiers())) {
+      throw new CqlQueryValidationException(
+        "CQL query has more than " + settings.getMaxModifiers() + " relation modifiers: " + cost.modifiers);
+    }
+  }
+
+  private void check(CQLNode node, int depth, Cost cost) {
+    if (node instanceof CQLTermNode termNode) {
+      checkTerm(termNode);
+      cost.terms++;
+      cost.modifiers += termNode.getRelation().getModifiers().size();
+      return;
+    }
+    if (!(node instanceof CQLBooleanNode booleanNode)) {
+      return;
+    }
+    if (exceeds(depth, settings.getMaxDepth())) {
+      throw new CqlQueryValidationException(
+        "CQL query nests boolean operators deeper than " + settings.getMaxDepth() + " levels");
+    }
+    for (var operand : CqlNodes.flatten(booleanNode)) {
+      check(operand, depth + 1, cost);
+      if (exceeds(cost.terms, settings.getMaxTerms()) || exceeds(cost.modifiers, settings.getMaxModifiers())) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Whether the value exceeds the limit, a limit of 0 or less is no limit.
+   */
+  private static boolean exceeds(int value, int limit) {
+    return limit > 0 && value > limit;
+  }
+
+  private void checkTerm(CQLTermNode node) {
+    var term = node.getTerm();
+    if (settings.isIndexedLeadingWildcardsOnly() && term.length() > 1
+        && (term.charAt(0) == '*' || term.charAt(0) == '?')
+        && !Strings.CI.startsWith(node.getIndex(), "cql.")) {
+      var field = resolve(node.getIndex());
+      if (field != null && !field.metadata().isTrigramIndexed(field.name())) {
+        throw new CqlQueryValidationException(
+          "Leading wildcard is not allowed on a field without trigram index: " + node.getIndex());
+      }
+    }
+  }
+
+  private void checkSortIndex(String index) {
+    var field = resolve(index);
+    if (field == null || !field.metadata().isSortIndexed(field.name())) {
+      throw new CqlQueryValidationException("Sorting is only allowed on indexed fields: " + index);
+    }
+  }
+
+  /**
+   * Resolve a field or dotted path of the entity, {@code null} if it does not exist.
+   */
+  private ResolvedField resolve(String index) {
+    var type = (Class<?>) domainClass;
+    var segments = index.split("\\.");
+    for (int i = 0; i < segments.length; i++) {
+      var metadata = getMetadata(type);
+      var name = metadata.getFieldNameIgnoreCase(segments[i]);
+      var field = ReflectionUtils.findField(type, name == null ? segments[i] : name);
+      if (field == null) {
+        return null;
+      }
+      if (i == segments.length - 1) {
+        return new ResolvedField(metadata, field.getName());
+      }
+      type = field.getType();
+      if (Collection.class.isAssignableFrom(type)
+          && field.getGenericType() instanceof ParameterizedType parameterizedType
+          && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> elementType) {
+        type = elementType;
+      }
+    }
+    return null;
+  }
+
+  private CqlEntityMetadata getMetadata(Class<?> type) {
+    return metadataByType.computeIfAbsent(type, key -> CqlEntityMetadata.of(key, null));
+  }
+
+  private record ResolvedField(CqlEntityMetadata metadata, String name) { }
+
+  private static final class Cost {
+    private int terms;
+    private int modifiers;
+  }
+}
@@ -0,0 +1,164 @@
+package org.folio.spring.cql;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable description of an entity class as far as CQL predicate building is concerned.
+ *
+ * <p>Everything is resolved once, when the descriptor is created, so that translating a query term is a map lookup
+ * instead of reflection or a metamodel lookup that signals a missing attribute with an exception.
+ */
+final class CqlEntityMetadata {
+
+  private final boolean respectCase;
+  private final boolean respectAccents;
+  private final Map<String, String> fieldNamesByLowerCase;
+  private final Map<String, FullTextIndexed> fullTextIndexedFields;
+  private final Set<String> trigramIndexedFields;
+  private final Set<String> sortIndexedFields;
+  private final Set<String> jsonbFields;
+  private final Map<String, PluralAttribute<?, ?, ?>> pluralAttributes;
+
+  private CqlEntityMetadata(Class<?> type, ManagedType<?> model) {
+    this.respectCase = type.isAnnotationPresent(RespectCase.class);
+    this.respectAccents = type.isAnnotationPresent(RespectAccents.class);
+    this.fieldNamesByLowerCase = getFieldNamesByLowerCase(type);
+    var fullTextIndexed = new HashMap<String, FullTextIndexed>();
+    var trigramIndexed = new HashSet<String>();
+    var sortIndexed = new HashSet<String>();
+    var jsonb = new HashSet<String>();
+    var indexedColumns = getLeadingIndexColumns(type);
+    for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      for (var field : current.getDeclaredFields()) {
+        if (isSortIndexedField(field, indexedColumns)) {
+          sortIndexed.add(field.getName());
+        }
+        var annotation = field.getAnnotation(FullTextIndexed.class);
+        if (annotation != null) {
+          fullTextIndexed.putIfAbsent(field.getName(), annotation);
+        }
+        if (field.isAnnotationPresent(TrigramIndexed.class)) {
+          trigramIndexed.add(field.getName());
+        }
+        if (field.isAnnotationPresent(JsonbIndexed.class)) {
+          jsonb.add(field.getName());
+        }
+      }
+    }
+    this.fullTextIndexedFields = Map.copyOf(fullTextIndexed);
+    this.trigramIndexedFields = Set.copyOf(trigramIndexed);
+    this.sortIndexedFields = Set.copyOf(sortIndexed);
+    this.jsonbFields = Set.copyOf(jsonb);
+    this.pluralAttributes = model == null
+                            ? Map.of()
+                            : model.getPluralAttributes().stream()
+                              .collect(Collectors.toUnmodifiableMap(Attribute::getName, Function.identity()));
+  }
+
+  /**
+   * Describe the entity class.
+   *
+   * @param type  entity or embeddable class
+   * @param model JPA metamodel of the class, {@code null} if the class is not managed
+   * @return the descriptor
+   */
+  static CqlEntityMetadata of(Class<?> type, ManagedType<?> model) {
+    return new CqlEntityMetadata(type, model);
+  }
+
+  boolean isRespectCase() {
+    return respectCase;
+  }
+
+  boolean isRespectAccents() {
+    return respectAccents;
+  }
+
+  /**
+   * Return the name of the declared field that matches the given name ignoring case, {@code null} if there is
+   * no such field or the match is ambiguous.
+   */
+  String getFieldNameIgnoreCase(String name) {
+    return fieldNamesByLowerCase.get(name.toLowerCase());
+  }
+
+  /**
+   * Return the {@link FullTextIndexed} annotation of the field, {@code null} if the field is not annotated.
+   */
+  FullTextIndexed getFullTextIndexed(String fieldName) {
+    return fullTextIndexedFields.get(fieldName);
+  }
+
+  boolean isTrigramIndexed(String fieldName) {
+    return trigramIndexedFields.contains(fieldName);
+  }
+
+  /**
+   * Check whether rows can be read in the order of the field from an index: the field is an identifier, annotated
+   * with {@link SortIndexed} or the leading column of an index declared on the entity table.
+   */
+  boolean isSortIndexed(String fieldName) {
+    return sortIndexedFields.contains(fieldName);
+  }
+
+  /**
+   * Check whether the field is a {@code jsonb} column whose keys are searched with {@link JsonbIndexed} operators.
+   */
+  boolean isJsonb(String fieldName) {
+    return jsonbFields.contains(fieldName);
+  }
+
+  /**
+   * Return the collection attribute with the given name, {@code null} if the attribute is not a collection.
+   */
+  PluralAttribute<?, ?, ?> getPluralAttribute(String name) {
+    return pluralAttributes.get(name);
+  }
+
+  private static boolean isSortIndexedField(Field field, Set<String> indexedColumns) {
+    if (field.isAnnotationPresent(SortIndexed.class) || field.isAnnotationPresent(Id.class)) {
+      return true;
+    }
+    var column = field.getAnnotation(Column.class);
+    var columnName = column == null || column.name().isEmpty()
+                     ? field.getName().replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                     : column.name();
+    return indexedColumns.contains(columnName.toLowerCase()) || indexedColumns.contains(field.getName().toLowerCase());
+  }
+
+  private static Set<String> getLeadingIndexColumns(Class<?> type) {
+    var table = type.getAnnotation(Table.class);
+    if (table == null) {
+      return Set.of();
+    }
+    return Arrays.stream(table.indexes())
+      .map(index -> index.columnList().split(",")[0].trim().split("\\s+")[0].toLowerCase())
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private static Map<String, String> getFieldNamesByLowerCase(Class<?> type) {
+    var result = new HashMap<String, String>();
+    var ambiguous = new HashSet<String>();
+    for (Field field : type.getDeclaredFields()) {
+      var key = field.getName().toLowerCase();
+      if (result.putIfAbsent(key, field.getName()) != null) {
+        ambiguous.add(key);
+      }
+    }
+    ambiguous.forEach(result::remove);
+    return Map.copyOf(result);
+  }
+}
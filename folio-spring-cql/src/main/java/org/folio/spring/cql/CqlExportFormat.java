@@ -0,0 +1,27 @@
+package org.folio.spring.cql;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Format of the rows written by {@link JpaCqlRepository#exportByCql}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CqlExportFormat {
+
+  /**
+   * One JSON object per line, with the attribute names as keys.
+   */
+  JSON_LINES("application/x-ndjson"),
+
+  /**
+   * Comma-separated values as of RFC 4180, with a header row of the attribute names.
+   */
+  CSV("text/csv");
+
+  /**
+   * Media type of the format, for the {@code Content-Type} header of the response.
+   */
+  private final String mediaType;
+}
@@ -0,0 +1,133 @@
+package org.folio.spring.cql;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes exported rows to an output stream as JSON Lines or CSV.
+ *
+ * <p>Rows are written through a fixed-size buffer and flushed every {@code flushSize} rows, so that the client
+ * receives the export while it is read from the database. A slow client blocks the flush, which in turn pauses
+ * reading from the database cursor.
+ */
+final class CqlExportWriter {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Writer writer;
+  private final CqlExportFormat format;
+  private final List<String> columns;
+  private final int flushSize;
+  private long rows;
+
+  CqlExportWriter(OutputStream out, CqlExportFormat format, List<String> columns, int flushSize) {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    this.format = format;
+    this.columns = columns;
+    this.flushSize = flushSize;
+  }
+
+  void writeHeader() throws IOException {
+    if (format == CqlExportFormat.CSV) {
+      for (int i = 0; i < columns.size(); i++) {
+        writeCsvField(i, columns.get(i));
+      }
+      writer.write("\r\n");
+    }
+  }
+
+  void writeRow(Object[] values) throws IOException {
+    if (format == CqlExportFormat.CSV) {
+      for (int i = 0; i < values.length; i++) {
+        writeCsvField(i, values[i] == null ? null : format(values[i]));
+      }
+      writer.write("\r\n");
+    } else {
+      writer.write('{');
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeJsonString(columns.get(i));
+        writer.write(':');
+        writeJsonValue(values[i]);
+      }
+      writer.write("}\n");
+    }
+    if (++rows % flushSize == 0) {
+      writer.flush();
+    }
+  }
+
+  long finish() throws IOException {
+    writer.flush();
+    return rows;
+  }
+
+  private void writeCsvField(int index, String value) throws IOException {
+    if (index > 0) {
+      writer.write(',');
+    }
+    if (value == null) {
+      return;
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private void writeJsonValue(Object value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+    } else if (value instanceof Boolean
+               || value instanceof Number number && Double.isFinite(number.doubleValue())) {
+      writer.write(value.toString());
+    } else {
+      writeJsonString(format(value));
+    }
+  }
+
+  private void writeJsonString(String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      switch (c) {
+        case '"' -> writer.write("\\\"");
+        case '\\' -> writer.write("\\\\");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        case '\t' -> writer.write("\\t");
+        default -> {
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+        }
+      }
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Format dates as ISO 8601 and all other values with {@code toString()}.
+   */
+  private static String format(Object value) {
+    return switch (value) {
+      case java.sql.Date date -> date.toLocalDate().toString();
+      case java.sql.Time time -> time.toLocalTime().toString();
+      case Date date -> date.toInstant().toString();
+      default -> value.toString();
+    };
+  }
+}
@@ -0,0 +1,23 @@
+package org.folio.spring.cql;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Number of entities with one value of a facet field, an element of the result of
+ * {@link JpaCqlRepository#facetsByCql(String, java.util.List, int)}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class CqlFacet {
+
+  private final Object value;
+  private final long count;
+
+  public CqlFacet(Object value, long count) {
+    this.value = value;
+    this.count = count;
+  }
+}
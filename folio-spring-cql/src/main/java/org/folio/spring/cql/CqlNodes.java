@@ -0,0 +1,174 @@
+package org.folio.spring.cql;
+
+import static org.springframework.util.CollectionUtils.isEmpty;
+
+import jakarta.persistence.criteria.Nulls;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+import org.z3950.zing.cql.CQLAndNode;
+import org.z3950.zing.cql.CQLBooleanNode;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLNotNode;
+import org.z3950.zing.cql.CQLOrNode;
+import org.z3950.zing.cql.CQLSortNode;
+import org.z3950.zing.cql.CQLTermNode;
+import org.z3950.zing.cql.ModifierSet;
+
+/**
+ * Structural helpers on parsed CQL trees shared by {@link Cql2JpaCriteria} and {@link Cql2NativeSql}.
+ *
+ * <p>Parsed trees are shared through the {@link CqlParserCache}, so nothing here modifies a node.
+ */
+final class CqlNodes {
+
+  private static final String NULLS_FIRST_MODIFIER = "sort.nullsFirst";
+  private static final String NULLS_LAST_MODIFIER = "sort.nullsLast";
+  private static final Pattern TERM_VALUE = Pattern.compile("(?:[^*?^\\\\]|\\\\.)+");
+
+  private CqlNodes() {
+  }
+
+  /**
+   * Collect the operands of a chain of AND or OR nodes, e.g. the four terms of {@code a or b or c or d}, so that
+   * the chain becomes one flat predicate instead of a nested one per operand. The tree is walked iteratively, so
+   * that chains of hundreds of terms don't overflow the stack.
+   *
+   * <p>For OR chains, a right operand {@code =*} is dropped as in {@code title=* OR contributors=*}, the query the
+   * UI sends before the user has typed anything.
+   *
+   * @param node AND or OR node
+   * @return the operands in query order
+   */
+  static List<CQLNode> flatten(CQLBooleanNode node) {
+    var operands = new ArrayList<CQLNode>();
+    var pending = new ArrayDeque<CQLNode>();
+    pending.push(node);
+    while (!pending.isEmpty()) {
+      var current = pending.pop();
+      if (current.getClass() != node.getClass()) {
+        operands.add(current);
+        continue;
+      }
+      var booleanNode = (CQLBooleanNode) current;
+      if (!(booleanNode instanceof CQLOrNode) || !isMatchAll(booleanNode.getRightOperand())) {
+        pending.push(booleanNode.getRightOperand());
+      }
+      pending.push(booleanNode.getLeftOperand());
+    }
+    return operands;
+  }
+
+  /**
+   * Group the equality terms among the operands of an OR chain by field, e.g. {@code id==a or id==b}, so that
+   * each group can be searched with a single IN or {@code = ANY} predicate. Other operands are returned under
+   * the {@code null} key.
+   *
+   * @param operands operands of an OR chain
+   * @return the operands by field, in query order
+   */
+  static Map<String, List<CQLNode>> groupEqualityTerms(List<CQLNode> operands) {
+    var groups = new LinkedHashMap<String, List<CQLNode>>();
+    for (var operand : operands) {
+      var key = operand instanceof CQLTermNode termNode && isEqualityTerm(termNode) ? termNode.getIndex() : null;
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(operand);
+    }
+    return groups;
+  }
+
+  /**
+   * Check whether the term compares a field of the entity itself with a value that has no wildcards, escapes or
+   * anchors, so that the term is a plain equality.
+   */
+  static boolean isEqualityTerm(CQLTermNode node) {
+    var index = node.getIndex();
+    var term = node.getTerm();
+    return !index.contains(".") && !Strings.CI.startsWith(index, "cql")
+           && isEmpty(node.getRelation().getModifiers())
+           && Strings.CS.equalsAny(node.getRelation().getBase(), "=", "==")
+           && StringUtils.isNotEmpty(term) && !StringUtils.containsAny(term, '*', '?', '^', '\\');
+  }
+
+  /**
+   * Return the null ordering of a sort key set by its {@code sort.nullsFirst} or {@code sort.nullsLast} modifier,
+   * {@link Nulls#NONE} for the database default.
+   */
+  static Nulls getNullOrdering(ModifierSet sortIndex) {
+    var result = Nulls.NONE;
+    for (var modifier : sortIndex.getModifiers()) {
+      if (NULLS_FIRST_MODIFIER.equalsIgnoreCase(modifier.getType())) {
+        result = Nulls.FIRST;
+      } else if (NULLS_LAST_MODIFIER.equalsIgnoreCase(modifier.getType())) {
+        result = Nulls.LAST;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Return a copy of the sort key without the null ordering modifiers, which {@code CqlModifiers} rejects.
+   */
+  static ModifierSet withoutNullOrdering(ModifierSet sortIndex) {
+    var result = new ModifierSet(sortIndex.getBase());
+    for (var modifier : sortIndex.getModifiers()) {
+      if (NULLS_FIRST_MODIFIER.equalsIgnoreCase(modifier.getType())
+          || NULLS_LAST_MODIFIER.equalsIgnoreCase(modifier.getType())) {
+        continue;
+      }
+      if (modifier.getComparison() == null) {
+        result.addModifier(modifier.getType());
+      } else {
+        result.addModifier(modifier.getType(), modifier.getComparison(), modifier.getValue());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Render the shape of a query: the query with its search terms replaced by {@code ?}, keeping the wildcards
+   * that decide which index can be used, e.g. {@code (name = ?* and age > ?) sortby age/sort.descending}.
+   * Equality terms on the same field in an OR chain are rendered once, so that queries for different numbers
+   * of ids have the same shape.
+   *
+   * @param node parsed query
+   * @return the query shape
+   */
+  static String shape(CQLNode node) {
+    return switch (node) {
+      case CQLSortNode sortNode -> shape(sortNode.getSubtree()) + " sortby " + sortNode.getSortIndexes().stream()
+        .map(ModifierSet::toCQL).collect(Collectors.joining(" "));
+      case CQLTermNode termNode -> termNode.getIndex() + " " + termNode.getRelation().toCQL() + " "
+                                   + termShape(termNode.getTerm());
+      case CQLAndNode andNode -> booleanShape(flatten(andNode), " and ");
+      case CQLNotNode notNode -> booleanShape(flatten(notNode), " not ");
+      case CQLOrNode orNode -> booleanShape(groupEqualityTerms(flatten(orNode)).entrySet().stream()
+        .flatMap(group -> group.getKey() == null ? group.getValue().stream() : group.getValue().stream().limit(1))
+        .toList(), " or ");
+      default -> node.getClass().getSimpleName();
+    };
+  }
+
+  static boolean isMatchAll(CQLNode node) {
+    return node.getClass() == CQLTermNode.class
+           && "*".equals(((CQLTermNode) node).getTerm())
+           && "=".equals(((CQLTermNode) node).getRelation().getBase())
+           && isEmpty(((CQLTermNode) node).getRelation().getModifiers());
+  }
+
+  private static String booleanShape(List<CQLNode> operands, String operator) {
+    return operands.stream().map(CqlNodes::shape).collect(Collectors.joining(operator, "(", ")"));
+  }
+
+  private static String termShape(String term) {
+    if (term.isEmpty()) {
+      return "\"\"";
+    }
+    return TERM_VALUE.matcher(term).replaceAll("?");
+  }
+}
@@ -0,0 +1,58 @@
+package org.folio.spring.cql;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * A page of entities found by a CQL query, together with how its total was determined.
+ *
+ * @param <T> entity type
+ */
+@Getter
+public class CqlPage<T> extends PageImpl<T> {
+
+  private final CountStrategy countStrategy;
+
+  /**
+   * Whether {@link #getTotalElements()} is the exact number of matching entities. If not, the total is a lower bound
+   * for {@link CountStrategy#CAPPED} and {@link CountStrategy#NONE}, and an estimate for
+   * {@link CountStrategy#ESTIMATED}.
+   */
+  private final boolean totalExact;
+
+  @Getter(AccessLevel.NONE)
+  private final boolean nextAvailable;
+
+  /**
+   * Create a page. If the total is not exact, a full page is assumed to have a next page.
+   */
+  public CqlPage(List<T> content, Pageable pageable, long total, CountStrategy countStrategy, boolean totalExact) {
+    this(content, pageable, total, countStrategy, totalExact,
+      !totalExact && pageable.isPaged() && content.size() == pageable.getPageSize());
+  }
+
+  /**
+   * Create a page that knows whether there is a next page, e.g. from reading one entity more than the page size.
+   *
+   * @param nextAvailable whether more entities match after this page, used if the total is not exact
+   */
+  public CqlPage(List<T> content, Pageable pageable, long total, CountStrategy countStrategy, boolean totalExact,
+                 boolean nextAvailable) {
+    super(content, pageable, total);
+    this.countStrategy = countStrategy;
+    this.totalExact = totalExact;
+    this.nextAvailable = nextAvailable;
+  }
+
+  /**
+   * Whether there is a next page. With a total that is not exact, this doesn't follow from the total: a capped total
+   * is raised to the end of a page after the cap, which would end paging although more entities match.
+   */
+  @Override
+  public boolean hasNext() {
+    return totalExact ? super.hasNext() : nextAvailable;
+  }
+}
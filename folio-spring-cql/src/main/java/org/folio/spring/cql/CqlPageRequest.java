@@ -0,0 +1,34 @@
+package org.folio.spring.cql;
+
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * CQL query together with the page of its results to find, one element of a
+ * {@link JpaCqlRepository#findAllByCql(java.util.List)} batch.
+ */
+@Getter
+public final class CqlPageRequest {
+
+  private final String cql;
+  private final Pageable pageable;
+
+  private CqlPageRequest(String cql, Pageable pageable) {
+    if (pageable.isUnpaged()) {
+      throw new IllegalArgumentException("Pageable must be paged");
+    }
+    this.cql = cql;
+    this.pageable = pageable;
+  }
+
+  /**
+   * Creates a request for a page of the results of the query.
+   *
+   * @param cql      the query
+   * @param pageable offset and size of the page
+   * @return {@link CqlPageRequest}
+   */
+  public static CqlPageRequest of(String cql, Pageable pageable) {
+    return new CqlPageRequest(cql, pageable);
+  }
+}
@@ -0,0 +1,94 @@
+package org.folio.spring.cql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.io.IOException;
+import org.z3950.zing.cql.CQLNode;
+import org.z3950.zing.cql.CQLParseException;
+import org.z3950.zing.cql.CQLParser;
+
+/**
+ * Bounded, thread-safe cache of parsed CQL queries.
+ *
+ * <p>Both parsed {@link CQLNode} trees and parse failures are cached, so each distinct query string is parsed
+ * only once while it stays in the cache. Cached nodes are shared between threads and must not be modified.
+ */
+public class CqlParserCache {
+
+  public static final long DEFAULT_MAX_SIZE = 1000;
+
+  private static final CqlParserCache DEFAULT_INSTANCE = new CqlParserCache(DEFAULT_MAX_SIZE);
+
+  private final Cache<String, ParseResult> cache;
+
+  public CqlParserCache(long maxSize) {
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Returns the cache shared by all {@link Cql2JpaCriteria} instances that are created without an explicit cache.
+   *
+   * @return default {@link CqlParserCache}
+   */
+  public static CqlParserCache getDefault() {
+    return DEFAULT_INSTANCE;
+  }
+
+  /**
+   * Parse the CQL query or return the cached result of an earlier parse of the same query.
+   *
+   * @param cql the query to parse
+   * @return parsed {@link CQLNode}
+   * @throws CqlQueryValidationException if the query cannot be parsed
+   */
+  public CQLNode parse(String cql) {
+    var result = cache.get(cql, CqlParserCache::doParse);
+    if (result.error() != null) {
+      throw new CqlQueryValidationException(result.error());
+    }
+    return result.node();
+  }
+
+  /**
+   * Returns hit, miss and eviction statistics of the cache.
+   *
+   * @return {@link CacheStats} snapshot
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Returns the number of cached queries.
+   *
+   * @return approximate number of entries
+   */
+  public long size() {
+    return cache.estimatedSize();
+  }
+
+  /**
+   * Discards all cached queries.
+   */
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  Cache<String, ?> getNativeCache() {
+    return cache;
+  }
+
+  private static ParseResult doParse(String cql) {
+    try {
+      return new ParseResult(new CQLParser().parse(cql), null);
+    } catch (IOException | CQLParseException e) {
+      return new ParseResult(null, e);
+    }
+  }
+
+  private record ParseResult(CQLNode node, Exception error) { }
+}
@@ -0,0 +1,184 @@
+package org.folio.spring.cql;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.folio.spring.cql.Cql2NativeSql.SqlQuery;
+
+/**
+ * Times the stages of the CQL queries of one repository and logs slow page and count queries.
+ *
+ * <p>Timings are passed to a {@link Recorder}, tagged with the entity, the tenant and the shape of the query, see
+ * {@link CqlNodes#shape}: the query without its search terms, so that all searches of the same kind share one
+ * timer. Page and count queries that take at least {@code folio.cql.slow-query.threshold} are logged with the SQL
+ * Hibernate generated for them and, for a share of the native SQL queries, with their
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} plan.
+ */
+@Log4j2
+public class CqlQueryMonitor {
+
+  private static final String UNKNOWN = "unknown";
+  private static final String BATCH_DELIMITER = "; ";
+
+  private final Class<?> entity;
+  private final EntityManager em;
+  private final CqlParserCache parserCache;
+  private final CqlTenantIdResolver tenantIdResolver;
+  private final Recorder recorder;
+  private final Duration slowQueryThreshold;
+  private final double explainSampleRate;
+
+  /**
+   * Create a monitor of the CQL queries of an entity.
+   *
+   * @param entity           entity class
+   * @param em               entity manager to explain slow queries with
+   * @param parserCache      cache to parse queries with for their shape
+   * @param tenantIdResolver resolver of the tenant tag, {@code null} to tag {@value #UNKNOWN}
+   * @param recorder         recorder of timings, {@code null} to only log slow queries
+   * @param slowQuery        settings of the logging of slow queries
+   */
+  public CqlQueryMonitor(Class<?> entity, EntityManager em, CqlParserCache parserCache,
+                         CqlTenantIdResolver tenantIdResolver, Recorder recorder,
+                         JpaCqlProperties.SlowQuery slowQuery) {
+    this.entity = entity;
+    this.em = em;
+    this.parserCache = parserCache;
+    this.tenantIdResolver = tenantIdResolver;
+    this.recorder = recorder;
+    this.slowQueryThreshold = slowQuery.getThreshold();
+    this.explainSampleRate = slowQuery.getExplainSampleRate();
+  }
+
+  /**
+   * Time a stage of a CQL query.
+   *
+   * @param stage  the stage
+   * @param cql    the query
+   * @param action runs the stage
+   * @param <R>    result type
+   * @return the result of the action
+   */
+  public <R> R record(Stage stage, String cql, Supplier<R> action) {
+    return record(stage, cql, null, action);
+  }
+
+  /**
+   * Time a stage of a CQL query that runs native SQL.
+   *
+   * @param stage    the stage
+   * @param cql      the query
+   * @param sqlQuery the native SQL the stage runs, as it can be explained, {@code null} for Criteria queries
+   * @param action   runs the stage
+   * @param <R>      result type
+   * @return the result of the action
+   */
+  public <R> R record(Stage stage, String cql, SqlQuery sqlQuery, Supplier<R> action) {
+    return record(stage, cql, getShape(cql), sqlQuery, action);
+  }
+
+  /**
+   * Time a stage of a batch of CQL queries that runs one native SQL query for all of them. The timing is tagged with
+   * the shapes of the queries joined by {@code ; }.
+   *
+   * @param stage    the stage
+   * @param cqls     the queries
+   * @param sqlQuery the native SQL the stage runs, as it can be explained, {@code null} if it runs none
+   * @param action   runs the stage
+   * @param <R>      result type
+   * @return the result of the action
+   */
+  public <R> R record(Stage stage, List<String> cqls, SqlQuery sqlQuery, Supplier<R> action) {
+    var shape = cqls.stream().map(this::getShape).collect(Collectors.joining(BATCH_DELIMITER));
+    return record(stage, String.join(BATCH_DELIMITER, cqls), shape, sqlQuery, action);
+  }
+
+  private <R> R record(Stage stage, String cql, String shape, SqlQuery sqlQuery, Supplier<R> action) {
+    var logged = slowQueryThreshold != null && (stage == Stage.PAGE || stage == Stage.COUNT);
+    var enclosing = logged ? CqlStatementInspector.start() : null;
+    var succeeded = false;
+    var startNanos = System.nanoTime();
+    try {
+      var result = action.get();
+      succeeded = true;
+      return result;
+    } finally {
+      var nanos = System.nanoTime() - startNanos;
+      var statements = logged ? CqlStatementInspector.stop(enclosing) : List.<String>of();
+      if (recorder != null) {
+        recorder.record(stage, entity.getSimpleName(), getTenantId(), shape, nanos);
+      }
+      if (succeeded && logged && nanos >= slowQueryThreshold.toNanos()) {
+        logSlowQuery(stage, cql, sqlQuery, statements, nanos);
+      }
+    }
+  }
+
+  private void logSlowQuery(Stage stage, String cql, SqlQuery sqlQuery, List<String> statements, long nanos) {
+    var sql = statements.isEmpty() && sqlQuery != null ? sqlQuery.sql() : String.join(";\n", statements);
+    var parameters = sqlQuery == null ? "[]" : Arrays.deepToString(sqlQuery.parameters().toArray());
+    log.warn("Slow CQL {} query on {} took {} ms: {}\nSQL: {}\nParameters: {}", stage.getValue(),
+      entity.getSimpleName(), NANOSECONDS.toMillis(nanos), cql, sql, parameters);
+    if (sqlQuery != null && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+      log.warn("Plan of slow CQL {} query on {}: {}\n{}", stage.getValue(), entity.getSimpleName(), cql,
+        explain(sqlQuery));
+    }
+  }
+
+  private String explain(SqlQuery sqlQuery) {
+    try {
+      var query = em.createNativeQuery("EXPLAIN (ANALYZE, BUFFERS) " + sqlQuery.sql());
+      var parameters = sqlQuery.parameters();
+      for (int i = 0; i < parameters.size(); i++) {
+        query.setParameter(i + 1, parameters.get(i));
+      }
+      return ((List<?>) query.getResultList()).stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    } catch (RuntimeException e) {
+      log.debug("Failed to explain CQL query: {}", sqlQuery.sql(), e);
+      return "not available: " + e.getMessage();
+    }
+  }
+
+  private String getTenantId() {
+    var tenantId = tenantIdResolver == null ? null : tenantIdResolver.getTenantId();
+    return tenantId == null ? UNKNOWN : tenantId;
+  }
+
+  private String getShape(String cql) {
+    try {
+      return CqlNodes.shape(parserCache.parse(cql));
+    } catch (CqlQueryValidationException e) {
+      return "invalid";
+    }
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public enum Stage {
+
+    PARSE("parse"),
+    TRANSLATE("translate"),
+    PAGE("page"),
+    COUNT("count");
+
+    private final String value;
+  }
+
+  /**
+   * Records the duration of a stage of a CQL query, e.g. in a Micrometer timer.
+   */
+  @FunctionalInterface
+  public interface Recorder {
+
+    void record(Stage stage, String entity, String tenant, String shape, long nanos);
+  }
+}
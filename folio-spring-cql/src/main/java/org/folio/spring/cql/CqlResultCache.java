@@ -0,0 +1,121 @@
+package org.folio.spring.cql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, thread-safe cache of CQL query results of repositories annotated with {@link CachedCql}.
+ *
+ * <p>Results are keyed by tenant, entity, the normalized CQL query and the page. Invalidating an entity for a
+ * tenant starts a new generation of its keys, so the results of the previous generation are never returned
+ * again and are evicted by size or age. A change inside a transaction starts another generation when the
+ * transaction completes, so that results read before the commit are not kept. Until then, the transaction that
+ * made the change reads past the cache, so that results containing its uncommitted changes are never cached.
+ */
+public class CqlResultCache {
+
+  private final Cache<Key, Object> cache;
+  private final Map<TenantEntity, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final CqlTenantIdResolver tenantIdResolver;
+  private final CqlParserCache parserCache;
+
+  public CqlResultCache(CqlTenantIdResolver tenantIdResolver, CqlParserCache parserCache, long maxSize,
+                        Duration ttl) {
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(ttl)
+      .recordStats()
+      .build();
+    this.tenantIdResolver = tenantIdResolver;
+    this.parserCache = parserCache;
+  }
+
+  /**
+   * Return the cached result of the query or load and cache it. Outside of a tenant request, and in a transaction
+   * that has changed the entity, the result is loaded without caching.
+   *
+   * @param entity   entity class
+   * @param kind     kind of the result, e.g. page or count
+   * @param cql      the query
+   * @param pageable page of the result, {@code null} for results without pages
+   * @param loader   loads the result from the database
+   * @param <R>      result type
+   * @return the result
+   */
+  @SuppressWarnings("unchecked")
+  public <R> R get(Class<?> entity, String kind, String cql, Pageable pageable, Supplier<R> loader) {
+    var tenantId = tenantIdResolver.getTenantId();
+    if (tenantId == null) {
+      return loader.get();
+    }
+
+    var tenantEntity = new TenantEntity(tenantId, entity);
+    if (TransactionSynchronizationManager.hasResource(tenantEntity)) {
+      return loader.get();
+    }
+
+    var generation = generation(tenantEntity).get();
+    var key = new Key(tenantId, entity, generation, kind, parserCache.parse(cql).toCQL(),
+      pageable == null ? 0 : pageable.getOffset(), pageable == null ? 0 : pageable.getPageSize());
+    return (R) cache.get(key, k -> loader.get());
+  }
+
+  /**
+   * Discard the cached results of the entity for the tenant of the current request.
+   *
+   * @param entity entity class
+   */
+  public void invalidate(Class<?> entity) {
+    var tenantId = tenantIdResolver.getTenantId();
+    if (tenantId == null) {
+      return;
+    }
+
+    var tenantEntity = new TenantEntity(tenantId, entity);
+    var generation = generation(tenantEntity);
+    generation.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()
+        && !TransactionSynchronizationManager.hasResource(tenantEntity)) {
+      // marks the transaction as having changed the entity until it completes
+      TransactionSynchronizationManager.bindResource(tenantEntity, Boolean.TRUE);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(tenantEntity);
+          generation.incrementAndGet();
+        }
+      });
+    }
+  }
+
+  /**
+   * Returns hit, miss and eviction statistics of the cache.
+   *
+   * @return {@link CacheStats} snapshot
+   */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  Cache<?, ?> getNativeCache() {
+    return cache;
+  }
+
+  private AtomicLong generation(TenantEntity tenantEntity) {
+    return generations.computeIfAbsent(tenantEntity, k -> new AtomicLong());
+  }
+
+  private record TenantEntity(String tenantId, Class<?> entity) { }
+
+  private record Key(String tenantId, Class<?> entity, long generation, String kind, String cql, long offset,
+                     int size) { }
+}
@@ -0,0 +1,51 @@
+package org.folio.spring.cql;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Captures the SQL statements Hibernate generates for a CQL query, so that slow queries can be logged with their
+ * SQL. Statements are only captured on the thread and during the query monitored by the {@link CqlQueryMonitor}.
+ */
+class CqlStatementInspector implements StatementInspector {
+
+  private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    var statements = STATEMENTS.get();
+    if (statements != null) {
+      statements.add(sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Start capturing statements of the current thread.
+   *
+   * @return the statements captured so far by an enclosing capture, {@code null} if there is none
+   */
+  static List<String> start() {
+    var enclosing = STATEMENTS.get();
+    STATEMENTS.set(new ArrayList<>());
+    return enclosing;
+  }
+
+  /**
+   * Stop capturing statements of the current thread.
+   *
+   * @param enclosing the result of {@link #start()}
+   * @return the statements captured since {@link #start()}
+   */
+  static List<String> stop(List<String> enclosing) {
+    var statements = STATEMENTS.get();
+    if (enclosing == null) {
+      STATEMENTS.remove();
+    } else {
+      enclosing.addAll(statements);
+      STATEMENTS.set(enclosing);
+    }
+    return statements;
+  }
+}
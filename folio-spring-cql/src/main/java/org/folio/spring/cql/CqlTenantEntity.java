@@ -0,0 +1,11 @@
+package org.folio.spring.cql;
+
+/**
+ * An entity found by {@link JpaCqlRepository#findByCqlAcrossTenants} together with the tenant it belongs to.
+ *
+ * @param tenantId tenant whose schema the entity was selected from
+ * @param entity   the entity, detached
+ * @param <T>      entity type
+ */
+public record CqlTenantEntity<T>(String tenantId, T entity) {
+}
@@ -0,0 +1,23 @@
+package org.folio.spring.cql;
+
+/**
+ * Resolves the tenant of the current request, so that the {@link CqlResultCache} keeps the results of each tenant
+ * apart. A FOLIO module typically defines it from its {@code FolioExecutionContext}:
+ *
+ * <pre>{@code
+ * @Bean
+ * public CqlTenantIdResolver cqlTenantIdResolver(FolioExecutionContext context) {
+ *   return context::getTenantId;
+ * }
+ * }</pre>
+ */
+@FunctionalInterface
+public interface CqlTenantIdResolver {
+
+  /**
+   * Returns the tenant of the current request.
+   *
+   * @return tenant id, {@code null} outside of a tenant request
+   */
+  String getTenantId();
+}
@@ -0,0 +1,25 @@
+package org.folio.spring.cql;
+
+/**
+ * Resolves the database schema of a tenant, so that {@link JpaCqlRepository#findByCqlAcrossTenants} can select
+ * from the tables of several tenants in one query. A FOLIO module typically defines it from its
+ * {@code FolioModuleMetadata}:
+ *
+ * <pre>{@code
+ * @Bean
+ * public CqlTenantSchemaResolver cqlTenantSchemaResolver(FolioModuleMetadata moduleMetadata) {
+ *   return moduleMetadata::getDBSchemaName;
+ * }
+ * }</pre>
+ */
+@FunctionalInterface
+public interface CqlTenantSchemaResolver {
+
+  /**
+   * Returns the schema of the tenant.
+   *
+   * @param tenantId tenant id
+   * @return schema name, an unquoted SQL identifier
+   */
+  String getSchemaName(String tenantId);
+}
@@ -0,0 +1,46 @@
+package org.folio.spring.cql;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Associations to load together with the entities found by a CQL query, given either as the name of an
+ * {@link jakarta.persistence.NamedEntityGraph} or as attribute paths like {@code "city"} or {@code "city.country"}.
+ */
+@Getter
+public final class FetchPlan {
+
+  private final String entityGraphName;
+  private final List<String> attributePaths;
+
+  private FetchPlan(String entityGraphName, List<String> attributePaths) {
+    this.entityGraphName = entityGraphName;
+    this.attributePaths = attributePaths;
+  }
+
+  /**
+   * Creates a fetch plan from a named entity graph of the entity.
+   *
+   * @param entityGraphName name of the entity graph
+   * @return {@link FetchPlan} loading the attributes of the entity graph
+   */
+  public static FetchPlan ofEntityGraph(String entityGraphName) {
+    if (entityGraphName == null || entityGraphName.isBlank()) {
+      throw new IllegalArgumentException("Entity graph name must not be blank");
+    }
+    return new FetchPlan(entityGraphName, List.of());
+  }
+
+  /**
+   * Creates a fetch plan from attribute paths, nested attributes are separated by dots.
+   *
+   * @param attributePaths paths of the attributes to load
+   * @return {@link FetchPlan} loading the given attributes
+   */
+  public static FetchPlan ofAttributePaths(String... attributePaths) {
+    if (attributePaths.length == 0) {
+      throw new IllegalArgumentException("At least one attribute path is required");
+    }
+    return new FetchPlan(null, List.of(attributePaths));
+  }
+}
@@ -0,0 +1,36 @@
+package org.folio.spring.cql;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Liquibase change creating the GIN index used by the full-text search of a {@link FullTextIndexed} field.
+ *
+ * <pre>
+ * &lt;customChange class="org.folio.spring.cql.FullTextIndexChange"&gt;
+ *   &lt;param name="tableName" value="instance"/&gt;
+ *   &lt;param name="columnName" value="title"/&gt;
+ * &lt;/customChange&gt;
+ * </pre>
+ *
+ * <p>{@code config} and {@code ignoreAccents} must match the annotation of the field and the accent policy of the
+ * entity.
+ */
+@Getter
+@Setter
+public class FullTextIndexChange extends AbstractIndexChange {
+
+  private String config = "simple";
+  private boolean ignoreAccents = true;
+
+  @Override
+  protected String getIndexExpression() {
+    var column = getColumnName();
+    return FullTextSearch.tsvector(config, ignoreAccents ? FullTextSearch.unaccent(column) : column);
+  }
+
+  @Override
+  protected String getIndexNameSuffix() {
+    return "fts_idx";
+  }
+}
@@ -0,0 +1,29 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Search the string field with PostgreSQL full-text search for the CQL relations {@code adj}, {@code all} and
+ * {@code any}, instead of LIKE.
+ *
+ * <p>{@code adj} matches the words of the term as a phrase, {@code all} matches all of them and {@code any} at least
+ * one of them, in any order. Terms with wildcards still use LIKE. Accents are ignored unless the entity is annotated
+ * with {@link RespectAccents}; case is always ignored.
+ *
+ * <p>Create the matching GIN index with {@link FullTextIndexChange}.
+ */
+@Documented
+@Target({FIELD})
+@Retention(RUNTIME)
+public @interface FullTextIndexed {
+
+  /**
+   * Name of the PostgreSQL text search configuration.
+   */
+  String config() default "simple";
+}
@@ -0,0 +1,63 @@
+package org.folio.spring.cql;
+
+import java.util.regex.Pattern;
+
+/**
+ * SQL of full-text search shared by the CQL queries and the index definition, so that the query expression
+ * matches the index expression.
+ */
+final class FullTextSearch {
+
+  static final String UNACCENT_FUNCTION = "f_unaccent";
+
+  private static final Pattern CONFIG_PATTERN = Pattern.compile("\\w+");
+
+  private FullTextSearch() {
+  }
+
+  static String unaccent(String expression) {
+    return UNACCENT_FUNCTION + "(" + expression + ")";
+  }
+
+  /**
+   * Returns the tsvector expression of the document.
+   *
+   * @param config   text search configuration
+   * @param document SQL of the document, {@code ?} for a query argument
+   * @return SQL of the tsvector expression
+   */
+  static String tsvector(String config, String document) {
+    return "to_tsvector('" + validConfig(config) + "', " + document + ")";
+  }
+
+  /**
+   * Returns the SQL matching the tsvector of a document against a query.
+   *
+   * @param config          text search configuration
+   * @param tsqueryFunction function converting the query text into a tsquery
+   * @return SQL pattern with {@code ?} for the document and the query text
+   */
+  static String match(String config, String tsqueryFunction) {
+    return match(config, tsqueryFunction, "?", "?");
+  }
+
+  /**
+   * Returns the SQL matching the tsvector of a document against a query.
+   *
+   * @param config          text search configuration
+   * @param tsqueryFunction function converting the query text into a tsquery
+   * @param document        SQL of the document
+   * @param query           SQL of the query text
+   * @return SQL of the match
+   */
+  static String match(String config, String tsqueryFunction, String document, String query) {
+    return tsvector(config, document) + " @@ " + tsqueryFunction + "('" + validConfig(config) + "', " + query + ")";
+  }
+
+  private static String validConfig(String config) {
+    if (!CONFIG_PATTERN.matcher(config).matches()) {
+      throw new IllegalArgumentException("Invalid text search configuration: " + config);
+    }
+    return config;
+  }
+}
@@ -1,13 +1,134 @@
 package org.folio.spring.cql;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.QuerySettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.util.function.SingletonSupplier;
 
 @Configuration
+@EnableConfigurationProperties(JpaCqlProperties.class)
 @EnableJpaRepositories(
   basePackages = "${folio.jpa.repository.base-packages:org.folio}",
   repositoryFactoryBeanClass = JpaCqlRepositoryFactoryBean.class
 )
 public class JpaCqlConfiguration {
 
+  public static final String CQL_COUNT_EXECUTOR = "cqlCountExecutor";
+  public static final String CQL_QUERY_TIMER = "cql.query";
+
+  @Bean
+  @ConditionalOnMissingBean
+  public CqlParserCache cqlParserCache(JpaCqlProperties properties) {
+    return new CqlParserCache(properties.getParserCache().getMaxSize());
+  }
+
+  /**
+   * Cache of query results of repositories annotated with {@link CachedCql}, available when the application
+   * defines a {@link CqlTenantIdResolver}.
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(CqlTenantIdResolver.class)
+  public CqlResultCache cqlResultCache(CqlTenantIdResolver tenantIdResolver, CqlParserCache cqlParserCache,
+                                       JpaCqlProperties properties) {
+    var resultCache = properties.getResultCache();
+    return new CqlResultCache(tenantIdResolver, cqlParserCache, resultCache.getMaxSize(), resultCache.getTtl());
+  }
+
+  /**
+   * Let Hibernate cache the plans of criteria queries when search terms are bound as parameters, so that queries
+   * of the same shape are interpreted only once.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "folio.cql.parameterized", havingValue = "true")
+  public HibernatePropertiesCustomizer cqlCriteriaPlanCacheCustomizer() {
+    return hibernateProperties -> hibernateProperties.putIfAbsent(QuerySettings.CRITERIA_PLAN_CACHE_ENABLED, true);
+  }
+
+  /**
+   * Let Hibernate pass the SQL of CQL queries to the {@link CqlQueryMonitor}, so that slow queries are logged with
+   * their SQL. An application-defined statement inspector takes precedence.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "folio.cql.slow-query.threshold")
+  public HibernatePropertiesCustomizer cqlStatementInspectorCustomizer() {
+    return hibernateProperties -> hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+      new CqlStatementInspector());
+  }
+
+  /**
+   * Executor for count queries running concurrently with page queries. Each count query gets a new virtual thread,
+   * which inherits the FOLIO execution context of the calling thread, so that the count uses the schema of the
+   * same tenant.
+   */
+  @Bean(name = CQL_COUNT_EXECUTOR)
+  @ConditionalOnMissingBean(name = CQL_COUNT_EXECUTOR)
+  @ConditionalOnProperty(name = "folio.cql.count.concurrent", havingValue = "true")
+  public Executor cqlCountExecutor() {
+    var executor = new SimpleAsyncTaskExecutor("cql-count-");
+    executor.setVirtualThreads(true);
+    return executor;
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(MeterRegistry.class)
+  static class JpaCqlMetricsConfiguration {
+
+    @Bean
+    public MeterBinder cqlParserCacheMetrics(CqlParserCache cqlParserCache) {
+      return registry -> CaffeineCacheMetrics.monitor(registry, cqlParserCache.getNativeCache(), "cql-parser");
+    }
+
+    @Bean
+    public MeterBinder cqlResultCacheMetrics(ObjectProvider<CqlResultCache> cqlResultCache) {
+      return registry -> cqlResultCache.ifAvailable(
+        cache -> CaffeineCacheMetrics.monitor(registry, cache.getNativeCache(), "cql-result"));
+    }
+
+    /**
+     * Record the stages of CQL queries in the {@code cql.query.parse}, {@code cql.query.translate},
+     * {@code cql.query.page} and {@code cql.query.count} timers, if enabled by {@code folio.cql.metrics.enabled}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "folio.cql.metrics.enabled", havingValue = "true")
+    public CqlQueryMonitor.Recorder cqlQueryTimers(ObjectProvider<MeterRegistry> meterRegistry) {
+      var registry = SingletonSupplier.of(meterRegistry::getIfAvailable);
+      return (stage, entity, tenant, shape, nanos) -> {
+        var meters = registry.get();
+        if (meters != null) {
+          Timer.builder(CQL_QUERY_TIMER + "." + stage.getValue())
+            .tags("entity", entity, "tenant", tenant, "shape", shape)
+            .register(meters)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        }
+      };
+    }
+
+    /**
+     * Bound the number of query shapes tagged on the CQL query timers.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "folio.cql.metrics.enabled", havingValue = "true")
+    public MeterFilter cqlQueryShapeFilter(JpaCqlProperties properties) {
+      return MeterFilter.maximumAllowableTags(CQL_QUERY_TIMER, "shape", properties.getMetrics().getMaxShapes(),
+        MeterFilter.deny());
+    }
+  }
 }
@@ -0,0 +1,171 @@
+package org.folio.spring.cql;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for CQL repositories.
+ * Binds properties with the prefix "folio.cql".
+ */
+@Data
+@ConfigurationProperties(prefix = "folio.cql")
+public class JpaCqlProperties {
+
+  /**
+   * Settings of the cache of parsed CQL queries.
+   */
+  private ParserCache parserCache = new ParserCache();
+
+  /**
+   * Settings of the cache of query results of repositories annotated with {@link CachedCql}.
+   */
+  private ResultCache resultCache = new ResultCache();
+
+  /**
+   * Settings of the count of matching entities reported by {@code findByCql}.
+   */
+  private Count count = new Count();
+
+  /**
+   * Limits of the cost of CQL queries, see {@link CqlCostPolicy}.
+   */
+  private CostPolicy costPolicy = new CostPolicy();
+
+  /**
+   * Settings of the timers of CQL queries.
+   */
+  private Metrics metrics = new Metrics();
+
+  /**
+   * Settings of the logging of slow CQL queries.
+   */
+  private SlowQuery slowQuery = new SlowQuery();
+
+  /**
+   * Bind CQL search terms as query parameters instead of rendering them as SQL literals. Queries that differ
+   * only in their search terms then share one SQL string, one Hibernate query plan and one PostgreSQL prepared
+   * statement.
+   */
+  private boolean parameterized = false;
+
+  /**
+   * Compile the CQL queries of {@code findByCql} and {@code countByCql} directly into native SQL for entities
+   * mapped to a single table, see {@link Cql2NativeSql}. Repositories annotated with {@link NativeCql} override
+   * this setting.
+   */
+  private boolean nativeSql = false;
+
+  /**
+   * Number of rows fetched per database round trip by {@code streamByCql}. The persistence context is cleared
+   * after each such number of rows so that memory use does not grow with the number of streamed entities.
+   */
+  private int streamFetchSize = 1000;
+
+  @Data
+  public static class ParserCache {
+
+    /**
+     * Maximum number of distinct CQL queries kept in the cache, 0 disables caching.
+     */
+    private long maxSize = CqlParserCache.DEFAULT_MAX_SIZE;
+  }
+
+  @Data
+  public static class ResultCache {
+
+    /**
+     * Maximum number of pages and counts kept in the cache over all tenants and entities.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Time after which a cached result expires, which bounds how long changes made outside of the repository
+     * remain invisible.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+  }
+
+  @Data
+  public static class CostPolicy {
+
+    /**
+     * Maximum nesting depth of boolean operators; a chain of the same operator counts as one level. 0 disables
+     * the limit.
+     */
+    private int maxDepth = 0;
+
+    /**
+     * Maximum number of search terms of a query, 0 disables the limit.
+     */
+    private int maxTerms = 0;
+
+    /**
+     * Maximum number of relation modifiers of a query, summed over its search terms, 0 disables the limit.
+     */
+    private int maxModifiers = 0;
+
+    /**
+     * Reject leading wildcards like {@code *smith} on fields that are not {@link TrigramIndexed}.
+     */
+    private boolean indexedLeadingWildcardsOnly = false;
+
+    /**
+     * Reject sorting by fields that are not indexed, see {@link SortIndexed}.
+     */
+    private boolean indexedSortOnly = false;
+  }
+
+  @Data
+  public static class Metrics {
+
+    /**
+     * Record the {@code cql.query.*} timers when Micrometer is available. Each CQL query then also parses its query
+     * shape, the query without its search terms.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of distinct query shapes tagged on the {@code cql.query.*} timers; timers of further shapes
+     * are not registered.
+     */
+    private int maxShapes = 1000;
+  }
+
+  @Data
+  public static class SlowQuery {
+
+    /**
+     * Duration from which page and count queries are logged with their SQL, {@code null} disables the logging.
+     */
+    private Duration threshold;
+
+    /**
+     * Share of slow native SQL queries, from 0 to 1, that are run again with {@code EXPLAIN (ANALYZE, BUFFERS)}
+     * to log their plan.
+     */
+    private double explainSampleRate = 0;
+  }
+
+  @Data
+  public static class Count {
+
+    /**
+     * Count strategy of {@code findByCql} calls that don't specify one.
+     */
+    private CountStrategy strategy = CountStrategy.EXACT;
+
+    /**
+     * Maximum number of entities counted by the {@link CountStrategy#CAPPED} and {@link CountStrategy#ESTIMATED}
+     * strategies.
+     */
+    private int cap = 10_000;
+
+    /**
+     * Run the count query concurrently with the page query on a second database connection, using the
+     * {@value JpaCqlConfiguration#CQL_COUNT_EXECUTOR} executor. The count then doesn't see uncommitted changes of
+     * the calling transaction.
+     */
+    private boolean concurrent = false;
+  }
+}
@@ -1,14 +1,216 @@
 package org.folio.spring.cql;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.transaction.annotation.Transactional;
 
 @NoRepositoryBean
 public interface JpaCqlRepository<T, I> extends JpaRepository<T, I> {
 
+  /**
+   * Find a page of entities matching the CQL query. The total is determined by the count strategy configured with
+   * {@code folio.cql.count.strategy}; the returned page is a {@link CqlPage}.
+   *
+   * @param cql      the query
+   * @param pageable offset and size of the page
+   * @return page of entities
+   */
   Page<T> findByCql(String cql, Pageable pageable);
 
+  /**
+   * Find a page of entities matching the CQL query, determining the total with the given count strategy.
+   *
+   * @param cql           the query
+   * @param pageable      offset and size of the page
+   * @param countStrategy how to determine the total
+   * @return {@link CqlPage} of entities, or a {@link Slice} without total for {@link CountStrategy#NONE}
+   */
+  Slice<T> findByCql(String cql, Pageable pageable, CountStrategy countStrategy);
+
+  /**
+   * Find a page of entities matching the CQL query and load the associations of the fetch plan with them.
+   *
+   * <p>The page is fetched in two phases: the primary keys of the page first, then the entities with these keys
+   * together with the associations of the fetch plan. Fetching collections therefore doesn't break pagination,
+   * and the associations are loaded without an extra select per entity.
+   *
+   * @param cql       the query
+   * @param pageable  offset and size of the page
+   * @param fetchPlan associations to load
+   * @return page of entities
+   */
+  Page<T> findByCql(String cql, Pageable pageable, FetchPlan fetchPlan);
+
+  /**
+   * Find a page of projections of the entities matching the CQL query.
+   *
+   * <p>For a record, or an interface whose getters all map to entity attributes, only these attributes are
+   * selected; the record components or getter names must match the attribute names. Interfaces with
+   * {@code @Value} expressions are created from the full entity.
+   *
+   * @param cql        the query
+   * @param pageable   offset and size of the page
+   * @param projection interface or record type to project the entities to
+   * @param <P>        projection type
+   * @return page of projections
+   */
+  <P> Page<P> findByCql(String cql, Pageable pageable, Class<P> projection);
+
+  /**
+   * Find entities matching the CQL query using keyset (seek) pagination.
+   *
+   * <p>Instead of skipping an offset, each page continues after the sort key values of the last entity of the
+   * previous page, so deep pages cost the same as the first one. The CQL sort keys are extended by the primary key
+   * as a tiebreaker.
+   *
+   * @param cql      the query, must be the same for all pages
+   * @param pageable page size and the continuation token of the previous page
+   * @return page of entities with the continuation token of the next page
+   */
+  KeysetPage<T> findByCql(String cql, KeysetPageable pageable);
+
+  /**
+   * Find a page of entities for each request in one read-only transaction, so that all queries share one database
+   * connection.
+   *
+   * <p>If the repository uses native SQL (see {@link NativeCql}) and supports all queries, the pages of all
+   * requests are selected by one {@code UNION ALL} query, and with the {@link CountStrategy#EXACT} count strategy
+   * the totals of all pages that need a count by one further query. Otherwise each page is found like with
+   * {@link #findByCql(String, Pageable)}. Pages in the result cache (see {@link CachedCql}) are not read again.
+   *
+   * @param requests queries and pages to find
+   * @return pages in the order of the requests
+   */
+  @Transactional(readOnly = true)
+  List<Page<T>> findAllByCql(List<CqlPageRequest> requests);
+
+  /**
+   * Find a page of the entities matching the CQL query in the schemas of all given tenants, e.g. of the member
+   * tenants of a consortium, with one native {@code UNION ALL} query selecting the ids of the page instead of one
+   * page query per tenant. The entities are then read with one query per tenant on the page.
+   *
+   * <p>The page is sorted as requested, then by tenant in the given order and by id, so that pages are stable. The
+   * total is exact; it is counted with a second query if the page doesn't determine it. Schemas are resolved by the
+   * {@link CqlTenantSchemaResolver} bean. The repository must use native SQL (see {@link NativeCql}), and the entity
+   * must have a single id and no associations, which would be loaded from the schema of the current tenant. The
+   * entities are read without persistence context and are detached, so that entities of different tenants with the
+   * same id are separate objects and the entities managed by the caller are left untouched.
+   *
+   * @param tenants  tenants to search
+   * @param cql      the query
+   * @param pageable offset and size of the page
+   * @return page of entities with their tenants
+   * @throws org.springframework.dao.InvalidDataAccessApiUsageException if there is no tenant schema resolver, the
+   *     repository doesn't use native SQL or the entity has associations
+   * @throws CqlQueryValidationException if native SQL doesn't support the query
+   */
+  @Transactional(readOnly = true)
+  Page<CqlTenantEntity<T>> findByCqlAcrossTenants(Collection<String> tenants, String cql, Pageable pageable);
+
+  /**
+   * Stream all entities matching the CQL query without loading them into memory at once.
+   *
+   * <p>Rows are read through a server-side cursor with the fetch size {@code folio.cql.stream-fetch-size}, and
+   * the persistence context is cleared after each fetch size number of entities, which detaches the entities
+   * already consumed. The entities are loaded read-only, changes to them are not flushed. Flush pending changes
+   * of the surrounding transaction before calling this method.
+   *
+   * <p>The caller must run in a transaction, e.g. {@code @Transactional(readOnly = true)}, and close the stream,
+   * e.g. with try-with-resources.
+   *
+   * @param cql the query
+   * @return stream of entities
+   * @throws org.springframework.dao.InvalidDataAccessApiUsageException if the repository is called outside of a
+   *     transaction
+   */
+  Stream<T> streamByCql(String cql);
+
+  /**
+   * Pass all entities matching the CQL query to the consumer in batches without loading them into memory at once.
+   *
+   * <p>Runs in a read-only transaction. The persistence context is cleared after each batch, so entities
+   * of a batch are detached once the consumer returns. Flush pending changes of a surrounding transaction before
+   * calling this method.
+   *
+   * @param cql           the query
+   * @param batchSize     number of entities per batch and JDBC fetch size, must be greater than 0
+   * @param batchConsumer consumer called for each batch, the last batch may be smaller
+   */
+  @Transactional(readOnly = true)
+  void streamByCql(String cql, int batchSize, Consumer<List<T>> batchConsumer);
+
+  /**
+   * Write the given attributes of all entities matching the CQL query to the output stream, e.g. of a
+   * {@code StreamingResponseBody} returned by a controller:
+   *
+   * <pre>{@code
+   * StreamingResponseBody body = out -> repository.exportByCql(cql, List.of("id", "name"), CqlExportFormat.CSV, out);
+   * }</pre>
+   *
+   * <p>Only the attributes are selected, and rows are read through a server-side cursor with the fetch size
+   * {@code folio.cql.stream-fetch-size} and written as they are read, so memory use doesn't depend on the number
+   * of rows. The output is flushed after each fetch size number of rows. The output stream is not closed.
+   *
+   * <p>Runs in a read-only transaction on the calling thread, which must have the tenant context of the request.
+   *
+   * @param cql        the query
+   * @param attributes names of the attributes to export, in column order
+   * @param format     output format
+   * @param out        stream to write to
+   * @return number of exported rows
+   * @throws IOException if writing to the output stream fails
+   */
+  @Transactional(readOnly = true)
+  long exportByCql(String cql, List<String> attributes, CqlExportFormat format, OutputStream out) throws IOException;
+
   long countByCql(String cql);
+
+  /**
+   * Count the entities matching the CQL query per value of each facet field, e.g. per status and per type next to
+   * a search result. All facets are computed with one query and one scan of the matching entities.
+   *
+   * <p>Entities without a value are counted with a {@code null} facet value.
+   *
+   * @param cql         the query
+   * @param facetFields names of the attributes to count the values of
+   * @param topN        maximum number of values returned per facet field
+   * @return values with the most entities first, by facet field in the given order
+   */
+  Map<String, List<CqlFacet>> facetsByCql(String cql, List<String> facetFields, int topN);
+
+  /**
+   * Delete all entities matching the CQL query with one {@code DELETE} statement.
+   *
+   * <p>Entities are not loaded, so entity callbacks and cascades don't run, and entities already in the
+   * persistence context are not detached. Sorting in the query is ignored.
+   *
+   * @param cql the query
+   * @return number of deleted entities
+   */
+  @Transactional
+  long deleteByCql(String cql);
+
+  /**
+   * Set the given attributes of all entities matching the CQL query with one {@code UPDATE} statement.
+   *
+   * <p>Entities are not loaded, so entity callbacks don't run, versions are not incremented and entities already in
+   * the persistence context keep their old values. Sorting in the query is ignored.
+   *
+   * @param cql         the query
+   * @param assignments new values by attribute name, e.g. {@code Map.of("status", Status.CLOSED)}
+   * @return number of updated entities
+   * @throws IllegalArgumentException if there are no assignments or an attribute does not exist
+   */
+  @Transactional
+  long updateByCql(String cql, Map<String, Object> assignments);
 }
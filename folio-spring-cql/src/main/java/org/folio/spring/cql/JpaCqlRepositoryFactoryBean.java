@@ -2,6 +2,12 @@ package org.folio.spring.cql;
 
 import jakarta.persistence.EntityManager;
 import java.io.Serializable;
+import java.util.concurrent.Executor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
@@ -10,25 +16,87 @@ import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryComposition;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 
+@Log4j2
 public class JpaCqlRepositoryFactoryBean<T extends JpaRepository<S, I>, S, I extends Serializable>
   extends JpaRepositoryFactoryBean<T, S, I> {
 
+  private CqlParserCache parserCache = CqlParserCache.getDefault();
+  private JpaCqlProperties properties = new JpaCqlProperties();
+  private Executor countExecutor;
+  private CqlResultCache resultCache;
+  private CqlTenantIdResolver tenantIdResolver;
+  private CqlTenantSchemaResolver tenantSchemaResolver;
+  private CqlQueryMonitor.Recorder recorder;
+
   public JpaCqlRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
     super(repositoryInterface);
   }
 
+  @Autowired
+  public void setParserCache(ObjectProvider<CqlParserCache> parserCache) {
+    this.parserCache = parserCache.getIfAvailable(CqlParserCache::getDefault);
+  }
+
+  @Autowired
+  public void setProperties(ObjectProvider<JpaCqlProperties> properties) {
+    this.properties = properties.getIfAvailable(JpaCqlProperties::new);
+  }
+
+  @Autowired
+  public void setCountExecutor(@Qualifier(JpaCqlConfiguration.CQL_COUNT_EXECUTOR) ObjectProvider<Executor> executor) {
+    this.countExecutor = executor.getIfAvailable();
+  }
+
+  @Autowired
+  public void setResultCache(ObjectProvider<CqlResultCache> resultCache) {
+    this.resultCache = resultCache.getIfAvailable();
+  }
+
+  @Autowired
+  public void setTenantIdResolver(ObjectProvider<CqlTenantIdResolver> tenantIdResolver) {
+    this.tenantIdResolver = tenantIdResolver.getIfAvailable();
+  }
+
+  @Autowired
+  public void setTenantSchemaResolver(ObjectProvider<CqlTenantSchemaResolver> tenantSchemaResolver) {
+    this.tenantSchemaResolver = tenantSchemaResolver.getIfAvailable();
+  }
+
+  @Autowired
+  public void setRecorder(ObjectProvider<CqlQueryMonitor.Recorder> recorder) {
+    this.recorder = recorder.getIfAvailable();
+  }
+
   @Override
   protected RepositoryFactorySupport createRepositoryFactory(EntityManager em) {
-    return new JpaCqlRepositoryFactory(em);
+    return new JpaCqlRepositoryFactory(em, parserCache, properties, countExecutor, resultCache, tenantIdResolver,
+      tenantSchemaResolver, recorder);
   }
 
   private static class JpaCqlRepositoryFactory extends JpaRepositoryFactory {
 
     private final EntityManager entityManager;
+    private final CqlParserCache parserCache;
+    private final JpaCqlProperties properties;
+    private final Executor countExecutor;
+    private final CqlResultCache resultCache;
+    private final CqlTenantIdResolver tenantIdResolver;
+    private final CqlTenantSchemaResolver tenantSchemaResolver;
+    private final CqlQueryMonitor.Recorder recorder;
 
-    JpaCqlRepositoryFactory(EntityManager em) {
+    @SuppressWarnings("java:S107")
+    JpaCqlRepositoryFactory(EntityManager em, CqlParserCache parserCache, JpaCqlProperties properties,
+                            Executor countExecutor, CqlResultCache resultCache, CqlTenantIdResolver tenantIdResolver,
+                            CqlTenantSchemaResolver tenantSchemaResolver, CqlQueryMonitor.Recorder recorder) {
       super(em);
       this.entityManager = em;
+      this.parserCache = parserCache;
+      this.properties = properties;
+      this.countExecutor = countExecutor;
+      this.resultCache = resultCache;
+      this.tenantIdResolver = tenantIdResolver;
+      this.tenantSchemaResolver = tenantSchemaResolver;
+      this.recorder = recorder;
     }
 
     @Override
@@ -36,14 +104,47 @@ public class JpaCqlRepositoryFactoryBean<T extends JpaRepository<S, I>, S, I ext
       RepositoryComposition.RepositoryFragments fragments = super.getRepositoryFragments(metadata);
       
       if (JpaCqlRepository.class.isAssignableFrom(metadata.getRepositoryInterface())) {
-        JpaEntityInformation<?, Serializable> entityInformation = 
-          getEntityInformation(metadata.getDomainType());
-        Object customImplementation = new JpaCqlRepositoryImpl<>(entityInformation, entityManager);
+        var nativeCql = AnnotatedElementUtils.findMergedAnnotation(metadata.getRepositoryInterface(), NativeCql.class);
+        var nativeSql = nativeCql == null ? properties.isNativeSql() : nativeCql.value();
+        var customImplementation = createCqlRepository(getEntityInformation(metadata.getDomainType()), nativeSql);
+        if (AnnotatedElementUtils.hasAnnotation(metadata.getRepositoryInterface(), CachedCql.class)) {
+          if (resultCache == null) {
+            log.warn("No CqlResultCache for @CachedCql repository {}, define a CqlTenantIdResolver bean",
+              metadata.getRepositoryInterface().getName());
+          }
+          customImplementation.setResultCache(resultCache);
+        }
         
         fragments = fragments.append(RepositoryComposition.RepositoryFragments.just(customImplementation));
       }
       
       return fragments;
     }
+
+    private <S> JpaCqlRepositoryImpl<S, Serializable> createCqlRepository(
+      JpaEntityInformation<S, Serializable> entityInformation, boolean nativeSql) {
+      var cql2JpaCriteria = new Cql2JpaCriteria<>(entityInformation.getJavaType(), entityManager, parserCache,
+        properties.isParameterized());
+      var costPolicy = CqlCostPolicy.isEnabled(properties.getCostPolicy())
+                       ? new CqlCostPolicy(entityInformation.getJavaType(), properties.getCostPolicy())
+                       : null;
+      cql2JpaCriteria.setCostPolicy(costPolicy);
+      var repository = new JpaCqlRepositoryImpl<S, Serializable>(entityInformation, entityManager, cql2JpaCriteria,
+        properties);
+      repository.setCountExecutor(countExecutor);
+      repository.setTenantSchemaResolver(tenantSchemaResolver);
+      if (recorder != null || properties.getSlowQuery().getThreshold() != null) {
+        var monitor = new CqlQueryMonitor(entityInformation.getJavaType(), entityManager, parserCache,
+          tenantIdResolver, recorder, properties.getSlowQuery());
+        cql2JpaCriteria.setMonitor(monitor);
+        repository.setMonitor(monitor);
+      }
+      if (nativeSql) {
+        var cql2NativeSql = new Cql2NativeSql<>(entityInformation.getJavaType(), entityManager, parserCache);
+        cql2NativeSql.setCostPolicy(costPolicy);
+        repository.setCql2NativeSql(cql2NativeSql);
+      }
+      return repository;
+    }
   }
 }
@@ -1,51 +1,944 @@
 package org.folio.spring.cql;
 
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Graph;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.extern.log4j.Log4j2;
+import org.folio.spring.cql.CqlQueryMonitor.Stage;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.DeleteSpecification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.data.repository.NoRepositoryBean;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.repository.core.support.SurroundingTransactionDetectorMethodInterceptor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ClassUtils;
 
 @Log4j2
 @NoRepositoryBean
 public class JpaCqlRepositoryImpl<T, I> extends SimpleJpaRepository<T, I> implements JpaCqlRepository<T, I> {
 
   private final Class<T> domainClass;
+  private final JpaEntityInformation<T, ?> entityInformation;
   private final EntityManager em;
   private final Cql2JpaCriteria<T> cql2JpaCriteria;
+  private final JpaCqlProperties properties;
+  private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+  private Executor countExecutor;
+  private Cql2NativeSql<T> cql2NativeSql;
+  private CqlResultCache resultCache;
+  private CqlQueryMonitor monitor;
+  private CqlTenantSchemaResolver tenantSchemaResolver;
 
   public JpaCqlRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+    this(entityInformation, entityManager, new Cql2JpaCriteria<>(entityInformation.getJavaType(), entityManager));
+  }
+
+  public JpaCqlRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager,
+                              Cql2JpaCriteria<T> cql2JpaCriteria) {
+    this(entityInformation, entityManager, cql2JpaCriteria, new JpaCqlProperties());
+  }
+
+  public JpaCqlRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager,
+                              Cql2JpaCriteria<T> cql2JpaCriteria, JpaCqlProperties properties) {
     super(entityInformation, entityManager);
     this.domainClass = entityInformation.getJavaType();
+    this.entityInformation = entityInformation;
     this.em = entityManager;
-    this.cql2JpaCriteria = new Cql2JpaCriteria<>(domainClass, em);
+    this.cql2JpaCriteria = cql2JpaCriteria;
+    this.properties = properties;
   }
 
   public JpaCqlRepositoryImpl(Class<T> domainClass, EntityManager em) {
     super(domainClass, em);
     this.domainClass = domainClass;
+    this.entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, em);
     this.em = em;
     this.cql2JpaCriteria = new Cql2JpaCriteria<>(domainClass, em);
+    this.properties = new JpaCqlProperties();
+  }
+
+  /**
+   * Set the executor to run count queries on concurrently with the page query when
+   * {@code folio.cql.count.concurrent} is enabled.
+   *
+   * <p>The count query runs outside of the transaction of the caller on a second connection, the executor has to
+   * propagate the FOLIO execution context; a new thread per task inherits it. The statement of a count that the
+   * page doesn't need is cancelled.
+   *
+   * @param countExecutor executor for count queries, {@code null} to run them after the page query
+   */
+  public void setCountExecutor(Executor countExecutor) {
+    this.countExecutor = countExecutor;
+  }
+
+  /**
+   * Set the compiler of CQL queries into native SQL used by {@code findByCql} and {@code countByCql} instead of
+   * Criteria queries where it supports the query.
+   *
+   * @param cql2NativeSql native SQL compiler, {@code null} to always use Criteria queries
+   */
+  public void setCql2NativeSql(Cql2NativeSql<T> cql2NativeSql) {
+    this.cql2NativeSql = cql2NativeSql;
+  }
+
+  /**
+   * Set the cache of the results of {@code findByCql(String, Pageable)}, {@code findAllByCql} and
+   * {@code countByCql}. The {@code save} and {@code delete} methods of this repository invalidate the cached results
+   * of the entity.
+   *
+   * @param resultCache result cache, {@code null} to always query the database
+   */
+  public void setResultCache(CqlResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * Set the monitor that times the translation, page and count queries of {@code findByCql} and
+   * {@code countByCql} and logs slow queries.
+   *
+   * @param monitor query monitor, {@code null} to not monitor queries
+   */
+  public void setMonitor(CqlQueryMonitor monitor) {
+    this.monitor = monitor;
+  }
+
+  /**
+   * Set the resolver of the tenant schemas searched by {@code findByCqlAcrossTenants}.
+   *
+   * @param tenantSchemaResolver tenant schema resolver, {@code null} to not support cross-tenant search
+   */
+  public void setTenantSchemaResolver(CqlTenantSchemaResolver tenantSchemaResolver) {
+    this.tenantSchemaResolver = tenantSchemaResolver;
   }
 
   @Override
   public Page<T> findByCql(String cql, Pageable pageable) {
-    var criteria = cql2JpaCriteria.toCollectCriteria(cql);
-    List<T> resultList = em
-      .createQuery(criteria)
+    IntFunction<List<T>> contentQuery = maxResults -> findContentByCql(cql, pageable, maxResults);
+    var countStrategy = properties.getCount().getStrategy();
+    if (resultCache == null || entityInformation.hasCompositeId() || entityInformation.getIdAttribute() == null) {
+      return findPage(cql, pageable, countStrategy, contentQuery);
+    }
+
+    // the cache keeps the ids only, the entities of a cached page are read again in the current persistence context
+    var loaded = new AtomicReference<CqlPage<T>>();
+    var cachedPage = cached("page", cql, pageable, () -> {
+      var page = findPage(cql, pageable, countStrategy, contentQuery);
+      loaded.set(page);
+      return CachedPage.of(page, entityInformation::getId);
+    });
+    return loaded.get() != null ? loaded.get() : cachedPage.toPage(pageable, ids -> findAllInOrder(ids, null));
+  }
+
+  @Override
+  public Slice<T> findByCql(String cql, Pageable pageable, CountStrategy countStrategy) {
+    IntFunction<List<T>> contentQuery = maxResults -> findContentByCql(cql, pageable, maxResults);
+    return countStrategy == CountStrategy.NONE
+      ? findSlice(pageable, contentQuery)
+      : findPage(cql, pageable, countStrategy, contentQuery);
+  }
+
+  @Override
+  public Page<T> findByCql(String cql, Pageable pageable, FetchPlan fetchPlan) {
+    if (entityInformation.hasCompositeId() || entityInformation.getIdAttribute() == null) {
+      throw new CqlQueryValidationException("Fetch plans require an entity with a single id attribute");
+    }
+
+    var entityGraph = toEntityGraph(fetchPlan);
+    return findPage(cql, pageable, properties.getCount().getStrategy(),
+      maxResults -> findContentInTwoPhases(cql, pageable, maxResults, entityGraph));
+  }
+
+  @Override
+  public <P> Page<P> findByCql(String cql, Pageable pageable, Class<P> projection) {
+    var countStrategy = properties.getCount().getStrategy();
+    if (projection.isAssignableFrom(domainClass)) {
+      return findPage(cql, pageable, countStrategy,
+        maxResults -> findContentByCql(cql, pageable, maxResults).stream().map(projection::cast).toList());
+    }
+
+    var attributes = getProjectionAttributes(projection);
+    if (attributes.isEmpty()) {
+      return findPage(cql, pageable, countStrategy, maxResults -> findContentByCql(cql, pageable, maxResults).stream()
+        .map(entity -> projectionFactory.createProjection(projection, entity))
+        .toList());
+    }
+
+    var mapper = getProjectionMapper(projection, attributes);
+    return findPage(cql, pageable, countStrategy, maxResults -> em
+      .createQuery(cql2JpaCriteria.toTupleCriteria(cql, attributes))
       .setFirstResult((int) pageable.getOffset())
-      .setMaxResults(pageable.getPageSize())
+      .setMaxResults(maxResults)
+      .getResultList()
+      .stream()
+      .map(mapper)
+      .toList());
+  }
+
+  @Override
+  public KeysetPage<T> findByCql(String cql, KeysetPageable pageable) {
+    if (entityInformation.hasCompositeId() || entityInformation.getIdAttribute() == null) {
+      throw new CqlQueryValidationException("Keyset pagination requires an entity with a single id attribute");
+    }
+
+    var after = pageable.isFirst() ? null : KeysetToken.decode(cql, pageable.getToken());
+    var criteria = cql2JpaCriteria.toKeysetCriteria(cql, entityInformation.getIdAttribute().getName(), after);
+    var rows = em
+      .createQuery(criteria)
+      .setMaxResults(pageable.getPageSize() + 1)
       .getResultList();
-    return PageableExecutionUtils.getPage(resultList, pageable, () -> countByCql(cql));
+
+    var hasNext = rows.size() > pageable.getPageSize();
+    var pageRows = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+    var content = pageRows.stream().map(row -> domainClass.cast(row.get(0))).toList();
+    String nextToken = null;
+    if (hasNext) {
+      var lastRow = pageRows.getLast().toArray();
+      nextToken = KeysetToken.encode(cql, Arrays.asList(lastRow).subList(1, lastRow.length));
+    }
+    return new KeysetPage<>(content, nextToken);
+  }
+
+  @Override
+  public List<Page<T>> findAllByCql(List<CqlPageRequest> requests) {
+    if (resultCache == null || entityInformation.hasCompositeId() || entityInformation.getIdAttribute() == null) {
+      return List.copyOf(findAllPages(requests));
+    }
+
+    // the first cache miss reads its page and the pages of all later requests, the cache keeps the ids only
+    var pages = new ArrayList<Page<T>>();
+    var loaded = new ArrayList<CqlPage<T>>();
+    for (var request : requests) {
+      var index = pages.size();
+      var cachedPage = cached("page", request.getCql(), request.getPageable(), () -> {
+        if (loaded.isEmpty()) {
+          loaded.addAll(Collections.nCopies(index, null));
+          loaded.addAll(findAllPages(requests.subList(index, requests.size())));
+        }
+        return CachedPage.of(loaded.get(index), entityInformation::getId);
+      });
+      pages.add(loaded.isEmpty()
+                ? cachedPage.toPage(request.getPageable(), ids -> findAllInOrder(ids, null))
+                : loaded.get(index));
+    }
+    return pages;
+  }
+
+  @Override
+  public Page<CqlTenantEntity<T>> findByCqlAcrossTenants(Collection<String> tenants, String cql, Pageable pageable) {
+    if (tenantSchemaResolver == null || cql2NativeSql == null) {
+      throw new InvalidDataAccessApiUsageException("findByCqlAcrossTenants requires a CqlTenantSchemaResolver bean "
+        + "and a repository using native SQL, e.g. with @NativeCql");
+    }
+    if (em.getMetamodel().entity(domainClass).getAttributes().stream()
+      .anyMatch(attribute -> attribute.isAssociation() || attribute.isCollection())) {
+      throw new InvalidDataAccessApiUsageException("findByCqlAcrossTenants requires an entity without associations "
+        + "and collections: " + domainClass.getName());
+    }
+
+    var tenantIds = List.copyOf(new LinkedHashSet<>(tenants));
+    if (tenantIds.isEmpty()) {
+      return new CqlPage<>(List.of(), pageable, 0, CountStrategy.EXACT, true);
+    }
+    var schemas = tenantIds.stream().map(tenantSchemaResolver::getSchemaName).toList();
+    var sqlQuery = monitored(Stage.TRANSLATE, cql, () -> cql2NativeSql.toSelectQuery(cql, pageable, schemas));
+    if (sqlQuery == null) {
+      throw new CqlQueryValidationException("Native SQL does not support the cross-tenant query: " + cql);
+    }
+
+    var content = monitored(Stage.PAGE, cql, sqlQuery, () -> findTenantEntities(sqlQuery, tenantIds, schemas));
+    if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+      return new CqlPage<>(content, pageable, pageable.getOffset() + content.size(), CountStrategy.EXACT, true);
+    }
+    var countQuery = cql2NativeSql.toCountQuery(cql, schemas);
+    long total = monitored(Stage.COUNT, cql, countQuery,
+      () -> ((Number) createNativeQuery(countQuery, null).getSingleResult()).longValue());
+    return new CqlPage<>(content, pageable, total, CountStrategy.EXACT, true);
+  }
+
+  @Override
+  public Stream<T> streamByCql(String cql) {
+    // the repository proxy opens a transaction for this method, so check for one around the repository call
+    if (!SurroundingTransactionDetectorMethodInterceptor.INSTANCE.isSurroundingTransactionActive()) {
+      throw new InvalidDataAccessApiUsageException("streamByCql requires a surrounding transaction that keeps "
+        + "the connection open while the stream is consumed, e.g. @Transactional(readOnly = true)");
+    }
+
+    var fetchSize = properties.getStreamFetchSize();
+    var resultStream = createStreamQuery(cql, fetchSize).getResultStream();
+    var iterator = new PersistenceContextClearingIterator<>(resultStream.iterator(), em, fetchSize);
+    var spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(resultStream::close);
+  }
+
+  @Override
+  public void streamByCql(String cql, int batchSize, Consumer<List<T>> batchConsumer) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must not be less than one");
+    }
+
+    var batch = new ArrayList<T>(batchSize);
+    try (var resultStream = createStreamQuery(cql, batchSize).getResultStream()) {
+      resultStream.forEach(entity -> {
+        batch.add(entity);
+        if (batch.size() == batchSize) {
+          batchConsumer.accept(List.copyOf(batch));
+          batch.clear();
+          em.clear();
+        }
+      });
+    }
+    if (!batch.isEmpty()) {
+      batchConsumer.accept(List.copyOf(batch));
+    }
+  }
+
+  @Override
+  public long exportByCql(String cql, List<String> attributes, CqlExportFormat format, OutputStream out)
+    throws IOException {
+    if (attributes.isEmpty()) {
+      throw new IllegalArgumentException("No attributes to export");
+    }
+
+    var fetchSize = properties.getStreamFetchSize();
+    var writer = new CqlExportWriter(out, format, attributes, fetchSize);
+    writer.writeHeader();
+    try (var rows = em.createQuery(cql2JpaCriteria.toTupleCriteria(cql, attributes))
+      .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+      .setHint(HibernateHints.HINT_READ_ONLY, true)
+      .getResultStream()) {
+      var iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        writer.writeRow(iterator.next().toArray());
+      }
+    }
+    return writer.finish();
   }
 
   @Override
   public long countByCql(String cql) {
-    var criteria = cql2JpaCriteria.toCountCriteria(cql);
-    return em.createQuery(criteria).getSingleResult();
+    return cached("count", cql, null, () -> exactCount(cql));
+  }
+
+  @Override
+  public Map<String, List<CqlFacet>> facetsByCql(String cql, List<String> facetFields, int topN) {
+    if (facetFields.isEmpty()) {
+      throw new IllegalArgumentException("No facet fields");
+    }
+    if (topN < 1) {
+      throw new IllegalArgumentException("topN must be positive");
+    }
+
+    var fields = List.copyOf(new LinkedHashSet<>(facetFields));
+    var criteria = monitored(Stage.TRANSLATE, cql, () -> cql2JpaCriteria.toFacetCriteria(cql, fields));
+    var rows = monitored(Stage.COUNT, cql, () -> em.createQuery(criteria).getResultList());
+
+    var facets = new LinkedHashMap<String, List<CqlFacet>>();
+    fields.forEach(field -> facets.put(field, new ArrayList<>()));
+    var notGrouped = (1 << fields.size()) - 1;
+    for (var row : rows) {
+      var grouping = row.get(0, Integer.class);
+      for (int i = 0; i < fields.size(); i++) {
+        var values = facets.get(fields.get(i));
+        if (grouping == (notGrouped ^ (1 << (fields.size() - 1 - i))) && values.size() < topN) {
+          values.add(new CqlFacet(row.get(i + 1), row.get(fields.size() + 1, Long.class)));
+        }
+      }
+    }
+    return facets;
+  }
+
+  @Override
+  @Transactional
+  public long deleteByCql(String cql) {
+    var deleted = em.createQuery(cql2JpaCriteria.toDeleteCriteria(cql)).executeUpdate();
+    invalidateResultCache();
+    return deleted;
+  }
+
+  @Override
+  @Transactional
+  public long updateByCql(String cql, Map<String, Object> assignments) {
+    var updated = em.createQuery(cql2JpaCriteria.toUpdateCriteria(cql, assignments)).executeUpdate();
+    invalidateResultCache();
+    return updated;
+  }
+
+  @Override
+  @Transactional
+  public <S extends T> S save(S entity) {
+    var saved = super.save(entity);
+    invalidateResultCache();
+    return saved;
+  }
+
+  @Override
+  @Transactional
+  public void delete(T entity) {
+    super.delete(entity);
+    invalidateResultCache();
+  }
+
+  @Override
+  @Transactional
+  public long delete(DeleteSpecification<T> spec) {
+    var deleted = super.delete(spec);
+    invalidateResultCache();
+    return deleted;
+  }
+
+  @Override
+  @Transactional
+  public void deleteAllInBatch() {
+    super.deleteAllInBatch();
+    invalidateResultCache();
+  }
+
+  @Override
+  @Transactional
+  public void deleteAllInBatch(Iterable<T> entities) {
+    super.deleteAllInBatch(entities);
+    invalidateResultCache();
+  }
+
+  @Override
+  @Transactional
+  public void deleteAllByIdInBatch(Iterable<I> ids) {
+    super.deleteAllByIdInBatch(ids);
+    invalidateResultCache();
+  }
+
+  private <R> R cached(String kind, String cql, Pageable pageable, Supplier<R> loader) {
+    return resultCache == null ? loader.get() : resultCache.get(domainClass, kind, cql, pageable, loader);
+  }
+
+  private void invalidateResultCache() {
+    if (resultCache != null) {
+      resultCache.invalidate(domainClass);
+    }
+  }
+
+  private long exactCount(String cql) {
+    return exactCount(cql, em);
+  }
+
+  private long exactCount(String cql, EntityManager entityManager) {
+    var sqlQuery = monitored(Stage.TRANSLATE, cql,
+      () -> cql2NativeSql == null ? null : cql2NativeSql.toCountQuery(cql));
+    if (sqlQuery != null) {
+      return monitored(Stage.COUNT, cql, sqlQuery,
+        () -> ((Number) createNativeQuery(sqlQuery, Long.class, entityManager).getSingleResult()).longValue());
+    }
+
+    var criteria = monitored(Stage.TRANSLATE, cql, () -> cql2JpaCriteria.toCountCriteria(cql));
+    return monitored(Stage.COUNT, cql, () -> entityManager.createQuery(criteria).getSingleResult());
+  }
+
+  private <R> R monitored(Stage stage, String cql, Supplier<R> action) {
+    return monitored(stage, cql, null, action);
+  }
+
+  private <R> R monitored(Stage stage, String cql, Cql2NativeSql.SqlQuery sqlQuery, Supplier<R> action) {
+    return monitor == null ? action.get() : monitor.record(stage, cql, sqlQuery, action);
+  }
+
+  private <R> R monitored(Stage stage, List<String> cqls, Cql2NativeSql.SqlQuery sqlQuery, Supplier<R> action) {
+    return monitor == null ? action.get() : monitor.record(stage, cqls, sqlQuery, action);
+  }
+
+  private <R> CqlPage<R> findPage(String cql, Pageable pageable, CountStrategy countStrategy,
+                                  IntFunction<List<R>> contentQuery) {
+    if (countStrategy == CountStrategy.NONE) {
+      var slice = findSlice(pageable, contentQuery);
+      var total = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+      return new CqlPage<>(slice.getContent(), pageable, total, countStrategy, !slice.hasNext(), slice.hasNext());
+    }
+
+    var concurrentCount = countExecutor != null && properties.getCount().isConcurrent()
+                          ? new ConcurrentCount(cql, countStrategy)
+                          : null;
+    try {
+      // a total that is not exact doesn't tell whether there is a next page, read one entity more to find out
+      var fetched = contentQuery.apply(pageable.getPageSize() + (countStrategy == CountStrategy.EXACT ? 0 : 1));
+      var nextAvailable = fetched.size() > pageable.getPageSize();
+      var content = nextAvailable ? fetched.subList(0, pageable.getPageSize()) : fetched;
+      if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+        return new CqlPage<>(content, pageable, pageable.getOffset() + content.size(), countStrategy, true);
+      }
+
+      var count = concurrentCount != null ? concurrentCount.await() : count(cql, countStrategy);
+      return new CqlPage<>(content, pageable, count.total(), countStrategy, count.exact(), nextAvailable);
+    } finally {
+      if (concurrentCount != null) {
+        concurrentCount.cancel();
+      }
+    }
+  }
+
+  private static <R> Slice<R> findSlice(Pageable pageable, IntFunction<List<R>> contentQuery) {
+    var content = contentQuery.apply(pageable.getPageSize() + 1);
+    var hasNext = content.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+  }
+
+  private Count count(String cql, CountStrategy countStrategy) {
+    return count(cql, countStrategy, em);
+  }
+
+  private Count count(String cql, CountStrategy countStrategy, EntityManager entityManager) {
+    return switch (countStrategy) {
+      case CAPPED -> monitored(Stage.COUNT, cql, () -> cappedCount(cql, entityManager));
+      case ESTIMATED -> monitored(Stage.COUNT, cql, () -> estimatedCount(cql, entityManager));
+      default -> new Count(exactCount(cql, entityManager), true);
+    };
+  }
+
+  /**
+   * Find the pages of the requests, with one native query for all of them if possible.
+   */
+  private List<CqlPage<T>> findAllPages(List<CqlPageRequest> requests) {
+    var countStrategy = properties.getCount().getStrategy();
+    var cqls = requests.stream().map(CqlPageRequest::getCql).toList();
+    // a total that is not exact doesn't tell whether there is a next page, read one entity more to find out
+    var lookAhead = countStrategy == CountStrategy.EXACT ? 0 : 1;
+    var batchQuery = cql2NativeSql == null || countStrategy == CountStrategy.NONE || requests.size() < 2
+                     ? null
+                     : monitored(Stage.TRANSLATE, cqls, null, () -> cql2NativeSql.toSelectQuery(requests, lookAhead));
+    if (batchQuery == null) {
+      return requests.stream()
+        .map(request -> findPage(request.getCql(), request.getPageable(), countStrategy,
+          maxResults -> findContentByCql(request.getCql(), request.getPageable(), maxResults)))
+        .toList();
+    }
+
+    var fetched = new ArrayList<List<T>>();
+    requests.forEach(request -> fetched.add(new ArrayList<>()));
+    for (var row : monitored(Stage.PAGE, cqls, batchQuery, () -> findRowsByNativeSql(batchQuery))) {
+      fetched.get(((Number) row[1]).intValue()).add(domainClass.cast(row[0]));
+    }
+    return toPages(requests, fetched, countStrategy);
+  }
+
+  /**
+   * Build the pages of the requests from the entities read for them, counting only where the content doesn't tell
+   * the total.
+   */
+  private List<CqlPage<T>> toPages(List<CqlPageRequest> requests, List<List<T>> fetched,
+                                   CountStrategy countStrategy) {
+    var contents = new ArrayList<List<T>>();
+    var nextAvailable = new boolean[requests.size()];
+    var counts = new Count[requests.size()];
+    var counted = new ArrayList<Integer>();
+    for (int i = 0; i < requests.size(); i++) {
+      var pageable = requests.get(i).getPageable();
+      nextAvailable[i] = fetched.get(i).size() > pageable.getPageSize();
+      var content = nextAvailable[i] ? fetched.get(i).subList(0, pageable.getPageSize()) : fetched.get(i);
+      contents.add(content);
+      if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+        counts[i] = new Count(pageable.getOffset() + content.size(), true);
+      } else {
+        counted.add(i);
+      }
+    }
+    var countResults = countAll(counted.stream().map(i -> requests.get(i).getCql()).toList(), countStrategy);
+    for (int i = 0; i < counted.size(); i++) {
+      counts[counted.get(i)] = countResults.get(i);
+    }
+
+    var pages = new ArrayList<CqlPage<T>>();
+    for (int i = 0; i < requests.size(); i++) {
+      pages.add(new CqlPage<>(contents.get(i), requests.get(i).getPageable(), counts[i].total(), countStrategy,
+        counts[i].exact(), nextAvailable[i]));
+    }
+    return pages;
+  }
+
+  /**
+   * Count the entities matching each query, with one native query for all of them if possible.
+   */
+  private List<Count> countAll(List<String> cqls, CountStrategy countStrategy) {
+    var countQuery = countStrategy != CountStrategy.EXACT || cqls.size() < 2 ? null : cql2NativeSql.toCountQuery(cqls);
+    if (countQuery == null) {
+      return cqls.stream().map(cql -> count(cql, countStrategy)).toList();
+    }
+
+    var row = monitored(Stage.COUNT, cqls, countQuery, () -> (Object[]) createNativeQuery(countQuery, null)
+      .getSingleResult());
+    return Arrays.stream(row).map(count -> new Count(((Number) count).longValue(), true)).toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<T> findContentByCql(String cql, Pageable pageable, int maxResults) {
+    var sqlQuery = monitored(Stage.TRANSLATE, cql,
+      () -> cql2NativeSql == null ? null : cql2NativeSql.toSelectQuery(cql));
+    if (sqlQuery != null) {
+      var explainQuery = new Cql2NativeSql.SqlQuery(sqlQuery.sql() + " LIMIT " + maxResults
+                                                    + " OFFSET " + pageable.getOffset(), sqlQuery.parameters());
+      return monitored(Stage.PAGE, cql, explainQuery, () -> createNativeQuery(sqlQuery, domainClass)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(maxResults)
+        .getResultList());
+    }
+
+    var criteria = monitored(Stage.TRANSLATE, cql, () -> cql2JpaCriteria.toCollectCriteria(cql));
+    return monitored(Stage.PAGE, cql, () -> em
+      .createQuery(criteria)
+      .setFirstResult((int) pageable.getOffset())
+      .setMaxResults(maxResults)
+      .getResultList());
+  }
+
+
+  private List<String> getProjectionAttributes(Class<?> projection) {
+    if (projection.isRecord()) {
+      return Arrays.stream(projection.getRecordComponents()).map(RecordComponent::getName).toList();
+    }
+    if (!projection.isInterface()) {
+      throw new IllegalArgumentException("Projection must be an interface or a record: " + projection.getName());
+    }
+
+    var projectionInformation = projectionFactory.getProjectionInformation(projection);
+    if (!projectionInformation.isClosed()) {
+      return List.of();
+    }
+    return projectionInformation.getInputProperties().stream().map(PropertyDescriptor::getName).toList();
+  }
+
+  private <P> Function<Tuple, P> getProjectionMapper(Class<P> projection, List<String> attributes) {
+    if (!projection.isRecord()) {
+      return tuple -> {
+        var values = new HashMap<String, Object>();
+        attributes.forEach(attribute -> values.put(attribute, tuple.get(attribute)));
+        return projectionFactory.createProjection(projection, values);
+      };
+    }
+
+    var types = Arrays.stream(projection.getRecordComponents()).map(RecordComponent::getType).toArray(Class[]::new);
+    try {
+      var constructor = projection.getDeclaredConstructor(types);
+      return tuple -> BeanUtils.instantiateClass(constructor, tuple.toArray());
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("Record has no canonical constructor: " + projection.getName(), e);
+    }
+  }
+
+  private List<T> findContentInTwoPhases(String cql, Pageable pageable, int maxResults,
+                                         EntityGraph<?> entityGraph) {
+    var idAttribute = entityInformation.getIdAttribute().getName();
+    var ids = em
+      .createQuery(cql2JpaCriteria.toSortedIdCriteria(cql, idAttribute))
+      .setFirstResult((int) pageable.getOffset())
+      .setMaxResults(maxResults)
+      .getResultList()
+      .stream()
+      .map(row -> row.get(0))
+      .toList();
+    return findAllInOrder(ids, entityGraph);
+  }
+
+  /**
+   * Select the entities with the ids, in the order of the ids. Entities that no longer exist are skipped.
+   *
+   * @param entityGraph load graph, {@code null} for the default fetching
+   */
+  private List<T> findAllInOrder(List<?> ids, EntityGraph<?> entityGraph) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    var query = em.createQuery(cql2JpaCriteria.toIdInCriteria(entityInformation.getIdAttribute().getName(), ids));
+    if (entityGraph != null) {
+      query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, entityGraph);
+    }
+    var entitiesById = new HashMap<Object, T>();
+    query.getResultList().forEach(entity -> entitiesById.put(entityInformation.getId(entity), entity));
+    return ids.stream().map(entitiesById::get).filter(Objects::nonNull).toList();
+  }
+
+  private EntityGraph<?> toEntityGraph(FetchPlan fetchPlan) {
+    if (fetchPlan.getEntityGraphName() != null) {
+      return em.getEntityGraph(fetchPlan.getEntityGraphName());
+    }
+
+    var entityGraph = em.createEntityGraph(domainClass);
+    for (var attributePath : fetchPlan.getAttributePaths()) {
+      var attributes = attributePath.split("\\.");
+      Graph<?> graph = entityGraph;
+      for (int i = 0; i < attributes.length - 1; i++) {
+        graph = graph.addSubgraph(attributes[i]);
+      }
+      graph.addAttributeNodes(attributes[attributes.length - 1]);
+    }
+    return entityGraph;
+  }
+
+  private Count cappedCount(String cql, EntityManager entityManager) {
+    var cap = properties.getCount().getCap();
+    var sqlQuery = cql2NativeSql == null ? null : cql2NativeSql.toCountQuery(cql, cap + 1);
+    long count = sqlQuery != null
+                 ? ((Number) createNativeQuery(sqlQuery, Long.class, entityManager).getSingleResult()).longValue()
+                 : entityManager.createQuery(cql2JpaCriteria.toLimitedCountCriteria(cql, cap + 1)).getSingleResult();
+    return count > cap ? new Count(cap, false) : new Count(count, true);
+  }
+
+  private Count estimatedCount(String cql, EntityManager entityManager) {
+    if (!cql2JpaCriteria.isAllRecords(cql)) {
+      return cappedCount(cql, entityManager);
+    }
+
+    var tableName = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+      .getMappingMetamodel()
+      .getEntityDescriptor(domainClass)
+      .getMappedTableDetails()
+      .getTableName();
+    Stream<?> estimates = entityManager
+      .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?1)")
+      .setParameter(1, tableName)
+      .getResultStream();
+    var estimate = estimates.map(Number.class::cast).findFirst().orElse(-1L);
+    log.debug("estimatedCount:: table {} has about {} rows", tableName, estimate);
+    if (estimate.longValue() <= properties.getCount().getCap()) {
+      return new Count(exactCount(cql, entityManager), true);
+    }
+    return new Count(estimate.longValue(), false);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object[]> findRowsByNativeSql(Cql2NativeSql.SqlQuery sqlQuery) {
+    return createNativeQuery(sqlQuery, null)
+      .unwrap(NativeQuery.class)
+      .addEntity(domainClass)
+      .addScalar(Cql2NativeSql.REQUEST_COLUMN, Integer.class)
+      .getResultList();
+  }
+
+  /**
+   * Reads the ids of the page, then the entities of each tenant with a query of their own, all with a stateless
+   * session on the connection of the current transaction. The session has no persistence context, so the entities
+   * are detached and those managed by the caller are left untouched. One query resolves rows with the same id to one
+   * instance, which is why the entities of different tenants are read by separate queries.
+   */
+  private List<CqlTenantEntity<T>> findTenantEntities(Cql2NativeSql.SqlQuery sqlQuery, List<String> tenantIds,
+                                                      List<String> schemas) {
+    var sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactory.class);
+    var idType = ClassUtils.resolvePrimitiveIfNecessary(entityInformation.getIdType());
+    return em.unwrap(Session.class).doReturningWork(connection -> {
+      try (var session = sessionFactory.openStatelessSession(connection)) {
+        var rows = withParameters(session.createNativeQuery(sqlQuery.sql(), Object[].class)
+          .addScalar(Cql2NativeSql.ID_COLUMN, idType)
+          .addScalar(Cql2NativeSql.TENANT_COLUMN, Integer.class), sqlQuery)
+          .getResultList();
+
+        var idsByTenant = new LinkedHashMap<Integer, List<Object>>();
+        rows.forEach(row -> idsByTenant.computeIfAbsent((Integer) row[1], tenant -> new ArrayList<>()).add(row[0]));
+        var entitiesByTenant = new HashMap<Integer, Map<Object, T>>();
+        idsByTenant.forEach((tenant, ids) -> {
+          var byIdQuery = cql2NativeSql.toSelectByIdQuery(schemas.get(tenant), ids);
+          var entities = new HashMap<Object, T>();
+          withParameters(session.createNativeQuery(byIdQuery.sql(), domainClass), byIdQuery).getResultList()
+            .forEach(entity -> entities.put(entityInformation.getId(entity), entity));
+          entitiesByTenant.put(tenant, entities);
+        });
+
+        // a row deleted after its id was selected is left out
+        return rows.stream()
+          .filter(row -> entitiesByTenant.get((Integer) row[1]).containsKey(row[0]))
+          .map(row -> new CqlTenantEntity<>(tenantIds.get((Integer) row[1]),
+            entitiesByTenant.get((Integer) row[1]).get(row[0])))
+          .toList();
+      }
+    });
+  }
+
+  private static <R> NativeQuery<R> withParameters(NativeQuery<R> query, Cql2NativeSql.SqlQuery sqlQuery) {
+    var parameters = sqlQuery.parameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      query.setParameter(i + 1, parameters.get(i));
+    }
+    return query;
+  }
+
+  private Query createNativeQuery(Cql2NativeSql.SqlQuery sqlQuery, Class<?> resultClass) {
+    return createNativeQuery(sqlQuery, resultClass, em);
+  }
+
+  private static Query createNativeQuery(Cql2NativeSql.SqlQuery sqlQuery, Class<?> resultClass,
+                                         EntityManager entityManager) {
+    var query = resultClass == null
+                ? entityManager.createNativeQuery(sqlQuery.sql())
+                : entityManager.createNativeQuery(sqlQuery.sql(), resultClass);
+    var parameters = sqlQuery.parameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      query.setParameter(i + 1, parameters.get(i));
+    }
+    return query;
+  }
+
+  private TypedQuery<T> createStreamQuery(String cql, int fetchSize) {
+    return em.createQuery(cql2JpaCriteria.toCollectCriteria(cql))
+      .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+      .setHint(HibernateHints.HINT_READ_ONLY, true);
+  }
+
+  private record Count(long total, boolean exact) {
+  }
+
+  /**
+   * A page of the result cache: the ids of the entities instead of the entities, so that no managed entity is shared
+   * between persistence contexts.
+   */
+  private record CachedPage(List<Object> ids, long total, CountStrategy countStrategy, boolean totalExact,
+                            boolean nextAvailable) {
+
+    static <E> CachedPage of(CqlPage<E> page, Function<E, ?> idExtractor) {
+      return new CachedPage(page.getContent().stream().<Object>map(idExtractor).toList(), page.getTotalElements(),
+        page.getCountStrategy(), page.isTotalExact(), page.hasNext());
+    }
+
+    <E> CqlPage<E> toPage(Pageable pageable, Function<List<Object>, List<E>> finder) {
+      return new CqlPage<>(finder.apply(ids), pageable, total, countStrategy, totalExact, nextAvailable);
+    }
+  }
+
+  /**
+   * A count running concurrently with the page query on its own entity manager, so that cancelling it also cancels
+   * its statement and releases its connection instead of letting the count run to completion. The count runs in a
+   * read-only transaction like the page query, so that it also uses the read replica if one is configured.
+   */
+  private final class ConcurrentCount {
+
+    private final AtomicReference<Session> session = new AtomicReference<>();
+    private final CompletableFuture<Count> future;
+
+    ConcurrentCount(String cql, CountStrategy countStrategy) {
+      this.future = CompletableFuture.supplyAsync(() -> run(cql, countStrategy), countExecutor);
+    }
+
+    private Count run(String cql, CountStrategy countStrategy) {
+      var entityManager = em.getEntityManagerFactory().createEntityManager();
+      var transaction = entityManager.getTransaction();
+      try {
+        session.set(entityManager.unwrap(Session.class));
+        if (future.isCancelled()) {
+          throw new CancellationException();
+        }
+        transaction.begin();
+        session.get().doWork(connection -> connection.setReadOnly(true));
+        return count(cql, countStrategy, entityManager);
+      } finally {
+        session.set(null);
+        if (transaction.isActive()) {
+          transaction.rollback();
+        }
+        entityManager.close();
+      }
+    }
+
+    Count await() {
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+
+    /**
+     * Cancel the count if it has not completed. A count that has not started yet doesn't run, the statement of a
+     * running count is cancelled.
+     */
+    void cancel() {
+      if (future.isDone()) {
+        return;
+      }
+      future.cancel(false);
+      var runningSession = session.get();
+      if (runningSession != null) {
+        try {
+          runningSession.cancelQuery();
+        } catch (RuntimeException e) {
+          log.debug("cancel:: Count query not cancelled: {}", e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Clears the persistence context every {@code clearInterval} entities, before the next row is read, so that
+   * the entity handed out last stays managed until the caller asks for the next one.
+   */
+  private static final class PersistenceContextClearingIterator<E> implements Iterator<E> {
+
+    private final Iterator<E> delegate;
+    private final EntityManager em;
+    private final int clearInterval;
+    private long count;
+
+    PersistenceContextClearingIterator(Iterator<E> delegate, EntityManager em, int clearInterval) {
+      this.delegate = delegate;
+      this.em = em;
+      this.clearInterval = clearInterval;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (count > 0 && count % clearInterval == 0) {
+        em.clear();
+      }
+      return delegate.hasNext();
+    }
+
+    @Override
+    public E next() {
+      count++;
+      return delegate.next();
+    }
   }
 }
@@ -0,0 +1,23 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * The field is mapped to a {@code jsonb} column whose keys can be searched with dotted CQL indexes, e.g.
+ * {@code metadata.source==marc} or {@code metadata.origin.year>=/number 2000}.
+ *
+ * <p>Equality without wildcards is a containment test {@code metadata @> '{"source":"marc"}'} that a
+ * {@code CREATE INDEX ... USING gin (metadata jsonb_path_ops)} index can answer; it matches the value exactly, so
+ * case and accents are respected. Ranges, {@code <>} and wildcards compare the text of the key,
+ * {@code metadata->>'source'}, like a string field, which an expression index on it can answer. The {@code number}
+ * modifier compares the key as a number.
+ */
+@Documented
+@Target({FIELD})
+@Retention(RUNTIME)
+public @interface JsonbIndexed {}
@@ -0,0 +1,36 @@
+package org.folio.spring.cql;
+
+import java.util.Iterator;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A page of entities returned by keyset (seek) pagination.
+ *
+ * @param <T> entity type
+ */
+@Getter
+public final class KeysetPage<T> implements Iterable<T> {
+
+  private final List<T> content;
+  private final String nextToken;
+
+  public KeysetPage(List<T> content, String nextToken) {
+    this.content = List.copyOf(content);
+    this.nextToken = nextToken;
+  }
+
+  /**
+   * Whether there are more entities after this page.
+   *
+   * @return {@code true} if {@link #getNextToken()} can be used to request the next page
+   */
+  public boolean hasNext() {
+    return nextToken != null;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return content.iterator();
+  }
+}
@@ -0,0 +1,49 @@
+package org.folio.spring.cql;
+
+import lombok.Getter;
+
+/**
+ * Page request for keyset (seek) pagination.
+ *
+ * <p>The first page is requested without a token; each following page is requested with the continuation
+ * token returned by {@link KeysetPage#getNextToken()} of the previous page and the same CQL query.
+ */
+@Getter
+public final class KeysetPageable {
+
+  private final int pageSize;
+  private final String token;
+
+  private KeysetPageable(int pageSize, String token) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must not be less than one");
+    }
+    this.pageSize = pageSize;
+    this.token = token;
+  }
+
+  /**
+   * Creates a request for the first page.
+   *
+   * @param pageSize the size of the page to be returned, must be greater than 0
+   * @return {@link KeysetPageable} for the first page
+   */
+  public static KeysetPageable ofSize(int pageSize) {
+    return new KeysetPageable(pageSize, null);
+  }
+
+  /**
+   * Creates a request for the page following the one the token was issued for.
+   *
+   * @param pageSize the size of the page to be returned, must be greater than 0
+   * @param token    continuation token of the previous page, {@code null} for the first page
+   * @return {@link KeysetPageable} for the next page
+   */
+  public static KeysetPageable of(int pageSize, String token) {
+    return new KeysetPageable(pageSize, token);
+  }
+
+  public boolean isFirst() {
+    return token == null;
+  }
+}
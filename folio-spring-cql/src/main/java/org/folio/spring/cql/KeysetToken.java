@@ -0,0 +1,115 @@
+package org.folio.spring.cql;
+
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes the sort key values of the last entity of a keyset page into an opaque continuation token and back.
+ *
+ * <p>The token also carries a fingerprint of the CQL query so that a token cannot be used with a different query.
+ */
+final class KeysetToken {
+
+  private static final String SEPARATOR = "|";
+  private static final String VALUE_PREFIX = "v";
+
+  private KeysetToken() {
+  }
+
+  static String encode(String cql, List<?> values) {
+    var parts = new ArrayList<String>();
+    parts.add(fingerprint(cql));
+    for (var value : values) {
+      parts.add(value == null ? "" : VALUE_PREFIX + URLEncoder.encode(format(value), StandardCharsets.UTF_8));
+    }
+    var token = String.join(SEPARATOR, parts);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static List<String> decode(String cql, String token) {
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw invalidTokenException();
+    }
+
+    var parts = decoded.split("\\" + SEPARATOR, -1);
+    if (!parts[0].equals(fingerprint(cql))) {
+      throw invalidTokenException();
+    }
+
+    var values = new ArrayList<String>();
+    for (int i = 1; i < parts.length; i++) {
+      values.add(parts[i].isEmpty() ? null : URLDecoder.decode(parts[i].substring(1), StandardCharsets.UTF_8));
+    }
+    return values;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static Object parse(String value, Class<?> type) {
+    if (value == null) {
+      return null;
+    }
+    if (String.class.equals(type)) {
+      return value;
+    } else if (Integer.class.equals(type) || int.class.equals(type)) {
+      return Integer.valueOf(value);
+    } else if (Long.class.equals(type) || long.class.equals(type)) {
+      return Long.valueOf(value);
+    } else if (Short.class.equals(type) || short.class.equals(type)) {
+      return Short.valueOf(value);
+    } else if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+      return Boolean.valueOf(value);
+    } else if (BigDecimal.class.equals(type)) {
+      return new BigDecimal(value);
+    } else if (UUID.class.equals(type)) {
+      return UUID.fromString(value);
+    } else if (java.sql.Date.class.equals(type)) {
+      return java.sql.Date.valueOf(value);
+    } else if (Date.class.equals(type) || Timestamp.class.equals(type)) {
+      return Timestamp.from(Instant.parse(value));
+    } else if (Instant.class.equals(type)) {
+      return Instant.parse(value);
+    } else if (LocalDateTime.class.equals(type)) {
+      return LocalDateTime.parse(value);
+    } else if (LocalDate.class.equals(type)) {
+      return LocalDate.parse(value);
+    } else if (OffsetDateTime.class.equals(type)) {
+      return OffsetDateTime.parse(value);
+    } else if (type.isEnum()) {
+      return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+    throw new CqlQueryValidationException("Keyset pagination is not supported for sort keys of type: "
+      + type.getSimpleName());
+  }
+
+  private static String format(Object value) {
+    return switch (value) {
+      case java.sql.Date sqlDate -> sqlDate.toLocalDate().toString();
+      case Date date -> date.toInstant().toString();
+      case Enum<?> enumValue -> enumValue.name();
+      default -> value.toString();
+    };
+  }
+
+  private static String fingerprint(String cql) {
+    return Integer.toHexString(cql.hashCode());
+  }
+
+  private static CqlQueryValidationException invalidTokenException() {
+    return new CqlQueryValidationException("Continuation token is invalid or does not match the query");
+  }
+}
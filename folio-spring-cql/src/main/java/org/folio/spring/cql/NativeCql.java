@@ -0,0 +1,27 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Compile the CQL queries of {@code findByCql} and {@code countByCql} of the annotated repository directly into
+ * native SQL with {@link Cql2NativeSql} instead of building a Criteria query, overriding the
+ * {@code folio.cql.native-sql} property.
+ *
+ * <p>Queries the native compiler does not support, e.g. on associations or with relation modifiers, still use a
+ * Criteria query. Hibernate filters enabled in the session are not applied to native SQL.
+ */
+@Documented
+@Target({TYPE})
+@Retention(RUNTIME)
+public @interface NativeCql {
+
+  /**
+   * Whether native SQL is used for the repository.
+   */
+  boolean value() default true;
+}
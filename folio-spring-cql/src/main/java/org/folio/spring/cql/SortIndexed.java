@@ -0,0 +1,20 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * The field has a B-tree index, created e.g. by a Liquibase changelog, that can return rows in the order of the
+ * field, so CQL queries may sort by it when {@code folio.cql.cost-policy.indexed-sort-only} is enabled.
+ *
+ * <p>Identifiers and the leading columns of the {@link jakarta.persistence.Table#indexes()} of the entity count as
+ * indexed without this annotation.
+ */
+@Documented
+@Target({FIELD})
+@Retention(RUNTIME)
+public @interface SortIndexed {}
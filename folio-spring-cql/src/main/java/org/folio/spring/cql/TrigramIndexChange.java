@@ -0,0 +1,43 @@
+package org.folio.spring.cql;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Liquibase change creating the {@code pg_trgm} GIN index used by wildcard searches on a {@link TrigramIndexed}
+ * field. The {@code pg_trgm} extension is created by {@code FolioSpringLiquibase}.
+ *
+ * <pre>
+ * &lt;customChange class="org.folio.spring.cql.TrigramIndexChange"&gt;
+ *   &lt;param name="tableName" value="person"/&gt;
+ *   &lt;param name="columnName" value="name"/&gt;
+ * &lt;/customChange&gt;
+ * </pre>
+ *
+ * <p>{@code ignoreCase} and {@code ignoreAccents} must match the {@link RespectCase} and {@link RespectAccents}
+ * annotations of the entity.
+ */
+@Getter
+@Setter
+public class TrigramIndexChange extends AbstractIndexChange {
+
+  private boolean ignoreCase = true;
+  private boolean ignoreAccents = true;
+
+  @Override
+  protected String getIndexExpression() {
+    var expression = getColumnName();
+    if (ignoreAccents) {
+      expression = FullTextSearch.unaccent(expression);
+    }
+    if (ignoreCase) {
+      expression = "lower(" + expression + ")";
+    }
+    return "(" + expression + ") public.gin_trgm_ops";
+  }
+
+  @Override
+  protected String getIndexNameSuffix() {
+    return "trgm_idx";
+  }
+}
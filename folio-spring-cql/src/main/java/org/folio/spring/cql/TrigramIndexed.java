@@ -0,0 +1,21 @@
+package org.folio.spring.cql;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * The string field has a {@code pg_trgm} index, so CQL terms with leading or infix wildcards like {@code *smith*}
+ * can be searched without a sequential scan.
+ *
+ * <p>Such terms are searched with LIKE on the field wrapped in the case and accent functions of the entity, e.g.
+ * {@code lower(f_unaccent(name)) LIKE lower(f_unaccent('%smith%'))}. Create the matching index with
+ * {@link TrigramIndexChange}.
+ */
+@Documented
+@Target({FIELD})
+@Retention(RUNTIME)
+public @interface TrigramIndexed {}
@@ -2,37 +2,58 @@ package org.folio.spring.cql;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Nulls;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.EntityType;
 import jakarta.persistence.metamodel.PluralAttribute;
 import jakarta.persistence.metamodel.Type;
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 import org.folio.cql2pgjson.exception.QueryValidationException;
 import org.folio.spring.testing.type.UnitTest;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCompoundSelection;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaFunction;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.criteria.JpaPath;
+import org.hibernate.query.criteria.JpaPredicate;
+import org.hibernate.query.criteria.JpaRoot;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -540,6 +561,98 @@ class Cql2JpaCriteriaTest {
     verify(countCriteriaQuery).where(predicate);
   }
 
+  // --- toDeleteCriteria / toUpdateCriteria ---
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void toDeleteCriteria_positive_sortIgnored() {
+    CriteriaDelete<Object> delete = mock(CriteriaDelete.class);
+    when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+    when(criteriaBuilder.createCriteriaDelete(Object.class)).thenReturn(delete);
+    when(delete.from(Object.class)).thenReturn(root);
+    when(criteriaBuilder.and()).thenReturn(predicate);
+
+    var result = new Cql2JpaCriteria<>(Object.class, entityManager).toDeleteCriteria("cql.allRecords=1 sortby name");
+
+    assertThat(result).isEqualTo(delete);
+    verify(delete).where(predicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void toUpdateCriteria_positive_setsAssignments() {
+    CriteriaUpdate<Object> update = mock(CriteriaUpdate.class);
+    Path agePath = mock(Path.class);
+    when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+    when(criteriaBuilder.createCriteriaUpdate(Object.class)).thenReturn(update);
+    when(update.from(Object.class)).thenReturn(root);
+    doReturn(agePath).when(root).get("age");
+    when(criteriaBuilder.and()).thenReturn(predicate);
+
+    var result = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .toUpdateCriteria("cql.allRecords=1", Map.of("age", 23));
+
+    assertThat(result).isEqualTo(update);
+    verify(update).set(agePath, (Object) 23);
+    verify(update).where(predicate);
+  }
+
+  @Test
+  void toUpdateCriteria_negative_noAssignments() {
+    var criteria = new Cql2JpaCriteria<>(Object.class, entityManager);
+
+    assertThatThrownBy(() -> criteria.toUpdateCriteria("cql.allRecords=1", Map.of()))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  // --- toFacetCriteria ---
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void toFacetCriteria_positive_groupingSetsOfFacetFields() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    JpaCriteriaQuery<Tuple> query = mock(JpaCriteriaQuery.class);
+    JpaRoot<Object> facetRoot = mock(JpaRoot.class);
+    JpaPath status = mock(JpaPath.class);
+    JpaPath type = mock(JpaPath.class);
+    JpaExpression<Long> count = mock(JpaExpression.class);
+    JpaExpression<Integer> grouping = mock(JpaExpression.class);
+    JpaExpression<Object> groupingSets = mock(JpaExpression.class);
+    var order = mock(JpaOrder.class);
+    var allRecords = mock(JpaPredicate.class);
+    JpaCompoundSelection<Tuple> tuple = mock(JpaCompoundSelection.class);
+    when(entityManager.getCriteriaBuilder()).thenReturn(hibernateCriteriaBuilder);
+    when(hibernateCriteriaBuilder.createTupleQuery()).thenReturn(query);
+    when(query.from(Object.class)).thenReturn(facetRoot);
+    doReturn(status).when(facetRoot).get("status");
+    doReturn(type).when(facetRoot).get("type");
+    when(hibernateCriteriaBuilder.count(facetRoot)).thenReturn(count);
+    when(hibernateCriteriaBuilder.sql("grouping(?, ?)", Integer.class, status, type)).thenReturn(grouping);
+    when(hibernateCriteriaBuilder.sql("grouping sets ((?), (?))", Object.class, status, type))
+      .thenReturn(groupingSets);
+    when(hibernateCriteriaBuilder.desc(count)).thenReturn(order);
+    when(hibernateCriteriaBuilder.and()).thenReturn(allRecords);
+    when(hibernateCriteriaBuilder.tuple(List.of(grouping, status, type, count))).thenReturn(tuple);
+
+    var result = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .toFacetCriteria("cql.allRecords=1 sortby name", List.of("status", "type"));
+
+    assertThat(result).isEqualTo(query);
+    verify(query).select(tuple);
+    verify(query).where(allRecords);
+    verify(query).groupBy(groupingSets);
+    verify(query).orderBy(order);
+  }
+
+  @Test
+  void toFacetCriteria_negative_tooManyFacetFields() {
+    var criteria = new Cql2JpaCriteria<>(Object.class, entityManager);
+    var facetFields = Stream.iterate(0, i -> i + 1).limit(32).map(i -> "f" + i).toList();
+
+    assertThatThrownBy(() -> criteria.toFacetCriteria("cql.allRecords=1", facetFields))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
   // --- Boolean operations via createCollectSpecification ---
 
   @Test
@@ -586,6 +699,58 @@ class Cql2JpaCriteriaTest {
     assertThat(result).isEqualTo(andPredicate);
   }
 
+  @Test
+  void createCollectSpecification_positive_cqlAndChain_returnsOneAndPredicate() {
+    var conjPredicate = mock(Predicate.class);
+    var andPredicate = mock(Predicate.class);
+    when(criteriaBuilder.and()).thenReturn(conjPredicate);
+    when(criteriaBuilder.and(new Predicate[] {conjPredicate, conjPredicate, conjPredicate})).thenReturn(andPredicate);
+
+    var spec = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .createCollectSpecification("cql.allRecords = 1 AND (cql.allRecords = 1 AND cql.allRecords = 1)");
+    var result = spec.toPredicate(root, criteriaQuery, criteriaBuilder);
+
+    assertThat(result).isEqualTo(andPredicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_sameFieldEqualityOrChainWithoutHibernate_usesSingleInPredicate() {
+    var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    Path path = mock(Path.class);
+    when(root.get("id")).thenReturn(path);
+    when(path.getJavaType()).thenReturn((Class) UUID.class);
+    when(path.in(ids)).thenReturn(predicate);
+
+    var spec = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .createCollectSpecification("id==" + ids.get(0) + " or id==" + ids.get(1) + " or id=" + ids.get(2));
+    var result = spec.toPredicate(root, criteriaQuery, criteriaBuilder);
+
+    assertThat(result).isEqualTo(predicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_sameFieldEqualityOrChain_bindsOneArray() {
+    var ids = new UUID[] {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    Path path = mock(Path.class);
+    JpaExpression array = mock(JpaExpression.class);
+    JpaExpression any = mock(JpaExpression.class);
+    var anyPredicate = mock(JpaPredicate.class);
+    when(root.get("id")).thenReturn(path);
+    when(path.getJavaType()).thenReturn((Class) UUID.class);
+    when(hibernateCriteriaBuilder.value(ids)).thenReturn(array);
+    when(hibernateCriteriaBuilder.sql("? = any(?)", Boolean.class, path, array)).thenReturn(any);
+    when(hibernateCriteriaBuilder.isTrue(any)).thenReturn(anyPredicate);
+
+    var spec = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .createCollectSpecification("id==" + ids[0] + " or id==" + ids[1] + " or id=" + ids[2]);
+    var result = spec.toPredicate(root, criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(anyPredicate);
+  }
+
   @Test
   void createCollectSpecification_positive_orNodeRightIsWildcard_simplifiestoLeftPredicate() {
     // Special case: right operand is "field = *" → simplify to just left operand
@@ -637,6 +802,31 @@ class Cql2JpaCriteriaTest {
     verify(criteriaQuery).orderBy(List.of(descOrder));
   }
 
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_sortByJoinedStringNullsLast_wrapsSortKey() {
+    Join join = mock(Join.class);
+    Path path = mock(Path.class);
+    Expression unaccented = mock(Expression.class);
+    Expression lowered = mock(Expression.class);
+    var descOrder = mock(Order.class);
+    var conjPredicate = mock(Predicate.class);
+    when(root.join("group", JoinType.LEFT)).thenReturn(join);
+    when(join.get("name")).thenReturn(path);
+    when(path.getJavaType()).thenReturn(String.class);
+    when(criteriaBuilder.function("f_unaccent", String.class, path)).thenReturn(unaccented);
+    when(criteriaBuilder.lower(unaccented)).thenReturn(lowered);
+    when(criteriaBuilder.desc(lowered, Nulls.LAST)).thenReturn(descOrder);
+    when(criteriaBuilder.and()).thenReturn(conjPredicate);
+
+    var spec = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .createCollectSpecification("(cql.allRecords = 1) sortby group.name/sort.descending/sort.nullsLast");
+    var result = spec.toPredicate(root, criteriaQuery, criteriaBuilder);
+
+    assertThat(result).isEqualTo(conjPredicate);
+    verify(criteriaQuery).orderBy(List.of(descOrder));
+  }
+
   // --- Field processing via createCollectSpecification ---
 
   @Test
@@ -646,7 +836,6 @@ class Cql2JpaCriteriaTest {
     Path path = mock(Path.class);
     Expression<String> literalExpr = mock(Expression.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("name")).thenThrow(new IllegalArgumentException());
     when(root.get("name")).thenReturn(path);
     when(path.getJavaType()).thenReturn((Class) String.class);
     when(criteriaBuilder.literal("hello")).thenReturn(literalExpr);
@@ -666,7 +855,6 @@ class Cql2JpaCriteriaTest {
     Path path = mock(Path.class);
     Expression<String> literalExpr = mock(Expression.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("name")).thenThrow(new IllegalArgumentException());
     when(root.get("name")).thenReturn(path);
     when(path.getJavaType()).thenReturn((Class) String.class);
     when(criteriaBuilder.literal("hello")).thenReturn(literalExpr);
@@ -679,13 +867,146 @@ class Cql2JpaCriteriaTest {
     assertThat(result).isEqualTo(predicate);
   }
 
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_parameterized_bindsTermAsParameter() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    Path path = mock(Path.class);
+    JpaExpression<String> parameterExpr = mock(JpaExpression.class);
+    when(root.getModel()).thenReturn(entityType);
+    when(root.get("name")).thenReturn(path);
+    when(path.getJavaType()).thenReturn((Class) String.class);
+    when(hibernateCriteriaBuilder.value("hello")).thenReturn(parameterExpr);
+    var likePredicate = mock(JpaPredicate.class);
+    when(hibernateCriteriaBuilder.like(path, parameterExpr, '\\')).thenReturn(likePredicate);
+
+    var spec = new Cql2JpaCriteria<>(RespectCaseAndAccentsEntity.class, entityManager,
+      CqlParserCache.getDefault(), true)
+      .createCollectSpecification("name = hello");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(likePredicate);
+    verify(hibernateCriteriaBuilder, never()).literal(any());
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_fullTextIndexedAdj_usesPhraseQuery() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    Path path = mock(Path.class);
+    JpaExpression<String> termLiteral = mock(JpaExpression.class);
+    JpaFunction<String> unaccentedField = mock(JpaFunction.class);
+    JpaFunction<String> unaccentedTerm = mock(JpaFunction.class);
+    JpaExpression<Boolean> match = mock(JpaExpression.class);
+    var matchPredicate = mock(JpaPredicate.class);
+    when(root.getModel()).thenReturn(entityType);
+    when(root.get("title")).thenReturn(path);
+    when(root.getJavaType()).thenReturn((Class) FullTextEntity.class);
+    when(path.getParentPath()).thenReturn(root);
+    when(path.getJavaType()).thenReturn((Class) String.class);
+    when(hibernateCriteriaBuilder.literal("big data")).thenReturn(termLiteral);
+    when(hibernateCriteriaBuilder.function("f_unaccent", String.class, path)).thenReturn(unaccentedField);
+    when(hibernateCriteriaBuilder.function("f_unaccent", String.class, termLiteral)).thenReturn(unaccentedTerm);
+    when(hibernateCriteriaBuilder.sql("to_tsvector('simple', ?) @@ phraseto_tsquery('simple', ?)", Boolean.class,
+      unaccentedField, unaccentedTerm)).thenReturn(match);
+    when(hibernateCriteriaBuilder.isTrue(match)).thenReturn(matchPredicate);
+
+    var spec = new Cql2JpaCriteria<>(FullTextEntity.class, entityManager)
+      .createCollectSpecification("title adj \"big data\"");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(matchPredicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_jsonbEquality_usesContainment() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    Path path = mock(Path.class);
+    JpaExpression<String> termLiteral = mock(JpaExpression.class);
+    JpaExpression<Boolean> contains = mock(JpaExpression.class);
+    var containsPredicate = mock(JpaPredicate.class);
+    when(root.getModel()).thenReturn(entityType);
+    when(root.get("metadata")).thenReturn(path);
+    when(hibernateCriteriaBuilder.literal("a*b")).thenReturn(termLiteral);
+    when(hibernateCriteriaBuilder.sql("? @> jsonb_build_object('origin', jsonb_build_object('source', "
+      + "cast(? as text)))", Boolean.class, path, termLiteral)).thenReturn(contains);
+    when(hibernateCriteriaBuilder.isTrue(contains)).thenReturn(containsPredicate);
+
+    var spec = new Cql2JpaCriteria<>(JsonbEntity.class, entityManager)
+      .createCollectSpecification("metadata.origin.source==a\\*b");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(containsPredicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_jsonbNumberRange_comparesKeyAsNumber() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    Path path = mock(Path.class);
+    JpaExpression<BigDecimal> number = mock(JpaExpression.class);
+    var rangePredicate = mock(JpaPredicate.class);
+    when(root.getModel()).thenReturn(entityType);
+    when(root.get("metadata")).thenReturn(path);
+    when(hibernateCriteriaBuilder.sql("cast(?->'origin'->>'year' as numeric)", BigDecimal.class, path))
+      .thenReturn(number);
+    when(hibernateCriteriaBuilder.greaterThanOrEqualTo(number, new BigDecimal("2000"))).thenReturn(rangePredicate);
+
+    var spec = new Cql2JpaCriteria<>(JsonbEntity.class, entityManager)
+      .createCollectSpecification("metadata.origin.year >=/number 2000");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(rangePredicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_jsonbWildcard_likeOnKeyText() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    Path path = mock(Path.class);
+    JpaExpression<String> text = mock(JpaExpression.class);
+    JpaExpression<String> termLiteral = mock(JpaExpression.class);
+    var likePredicate = mock(JpaPredicate.class);
+    when(root.getModel()).thenReturn(entityType);
+    when(root.get("metadata")).thenReturn(path);
+    when(hibernateCriteriaBuilder.sql("?->>'source'", String.class, path)).thenReturn(text);
+    when(hibernateCriteriaBuilder.literal("mar%")).thenReturn(termLiteral);
+    when(hibernateCriteriaBuilder.like(text, termLiteral, '\\')).thenReturn(likePredicate);
+
+    var spec = new Cql2JpaCriteria<>(JsonbRespectCaseAndAccentsEntity.class, entityManager)
+      .createCollectSpecification("metadata.source=mar*");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder);
+
+    assertThat(result).isEqualTo(likePredicate);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_negative_jsonbInvalidKey_throwsException() {
+    var hibernateCriteriaBuilder = mock(HibernateCriteriaBuilder.class);
+    EntityType entityType = mock(EntityType.class);
+    when(root.getModel()).thenReturn(entityType);
+
+    var spec = new Cql2JpaCriteria<>(JsonbEntity.class, entityManager)
+      .createCollectSpecification("metadata..source==marc");
+
+    assertThatThrownBy(() -> spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, hibernateCriteriaBuilder))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessage("Invalid jsonb key: metadata..source");
+  }
+
   @Test
   @SuppressWarnings({"unchecked", "rawtypes"})
   void createCollectSpecification_positive_fieldWithEqualsEmptyTerm_returnsIsNotNull() {
     EntityType entityType = mock(EntityType.class);
     Path path = mock(Path.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("name")).thenThrow(new IllegalArgumentException());
     when(root.get("name")).thenReturn(path);
     when(path.getJavaType()).thenReturn((Class) UUID.class);
     when(criteriaBuilder.isNotNull(path)).thenReturn(predicate);
@@ -705,7 +1026,6 @@ class Cql2JpaCriteriaTest {
     var notNullPredicate = mock(Predicate.class);
     var equalEmptyPredicate = mock(Predicate.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("name")).thenThrow(new IllegalArgumentException());
     when(root.get("name")).thenReturn(path);
     when(path.getJavaType()).thenReturn((Class) String.class);
     when(criteriaBuilder.isNotNull(path)).thenReturn(notNullPredicate);
@@ -738,6 +1058,76 @@ class Cql2JpaCriteriaTest {
     assertThat(result).isEqualTo(predicate);
   }
 
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_nestedFieldsWithDot_shareOneJoin() {
+    Join join = mock(Join.class);
+    Attribute attribute = mock(Attribute.class);
+    Path namePath = mock(Path.class);
+    Path codePath = mock(Path.class);
+    Expression<String> literalA = mock(Expression.class);
+    Expression<String> literalB = mock(Expression.class);
+    Predicate codePredicate = mock(Predicate.class);
+    Predicate andPredicate = mock(Predicate.class);
+    when(root.getJoins()).thenReturn(Set.of(), Set.of(join));
+    when(root.join("city", JoinType.LEFT)).thenReturn(join);
+    when(join.getJoinType()).thenReturn(JoinType.LEFT);
+    when(join.getAttribute()).thenReturn(attribute);
+    when(attribute.getName()).thenReturn("city");
+    when(join.get("name")).thenReturn(namePath);
+    when(join.get("code")).thenReturn(codePath);
+    when(namePath.getJavaType()).thenReturn((Class) String.class);
+    when(codePath.getJavaType()).thenReturn((Class) String.class);
+    when(criteriaBuilder.literal("a")).thenReturn(literalA);
+    when(criteriaBuilder.literal("b")).thenReturn(literalB);
+    when(criteriaBuilder.like(namePath, literalA, '\\')).thenReturn(predicate);
+    when(criteriaBuilder.like(codePath, literalB, '\\')).thenReturn(codePredicate);
+    when(criteriaBuilder.and(predicate, codePredicate)).thenReturn(andPredicate);
+
+    var spec = new Cql2JpaCriteria<>(RespectCaseAndAccentsEntity.class, entityManager)
+      .createCollectSpecification("city.name = a and city.code = b");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, criteriaBuilder);
+
+    assertThat(result).isEqualTo(andPredicate);
+    verify(root).join("city", JoinType.LEFT);
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void createCollectSpecification_positive_relationModifiers_usesExistsSubquery() {
+    var uuid = UUID.fromString(UUID_VALUE);
+    Subquery subquery = mock(Subquery.class);
+    Root correlatedRoot = mock(Root.class);
+    Join join = mock(Join.class);
+    EntityType attributeType = mock(EntityType.class);
+    Path keyPath = mock(Path.class);
+    Expression literalOne = mock(Expression.class);
+    Predicate conjunction = mock(Predicate.class);
+    Predicate keyPredicate = mock(Predicate.class);
+    Predicate existsPredicate = mock(Predicate.class);
+    when(criteriaQuery.subquery(Integer.class)).thenReturn(subquery);
+    when(subquery.correlate(root)).thenReturn(correlatedRoot);
+    when(correlatedRoot.join("attributes")).thenReturn(join);
+    when(join.getModel()).thenReturn(attributeType);
+    when(attributeType.getBindableJavaType()).thenReturn(AttributeEntity.class);
+    when(join.get("key")).thenReturn(keyPath);
+    when(keyPath.getJavaType()).thenReturn((Class) UUID.class);
+    when(criteriaBuilder.conjunction()).thenReturn(conjunction);
+    when(criteriaBuilder.equal(keyPath, uuid)).thenReturn(keyPredicate);
+    when(criteriaBuilder.and(conjunction, keyPredicate)).thenReturn(predicate);
+    when(criteriaBuilder.literal(1)).thenReturn(literalOne);
+    when(subquery.select(literalOne)).thenReturn(subquery);
+    when(criteriaBuilder.exists(subquery)).thenReturn(existsPredicate);
+
+    var spec = new Cql2JpaCriteria<>(Object.class, entityManager)
+      .createCollectSpecification("attributes =/@KEY=" + UUID_VALUE + " *");
+    var result = spec.toPredicate((Root) root, (CriteriaQuery) criteriaQuery, criteriaBuilder);
+
+    assertThat(result).isEqualTo(existsPredicate);
+    verify(subquery).where(predicate);
+    verify(criteriaQuery, never()).distinct(true);
+  }
+
   // --- buildCollectionMemberPredicate ---
 
   @Test
@@ -749,7 +1139,8 @@ class Cql2JpaCriteriaTest {
     Type elementType = mock(Type.class);
     Path collectionPath = mock(Path.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("memberIds")).thenReturn(pluralAttr);
+    when(entityType.getPluralAttributes()).thenReturn(Set.of(pluralAttr));
+    when(pluralAttr.getName()).thenReturn("memberIds");
     when(pluralAttr.getElementType()).thenReturn(elementType);
     when(elementType.getJavaType()).thenReturn((Class) UUID.class);
     doReturn(collectionPath).when(root).get("memberIds");
@@ -771,7 +1162,8 @@ class Cql2JpaCriteriaTest {
     Type elementType = mock(Type.class);
     Path collectionPath = mock(Path.class);
     when(root.getModel()).thenReturn(entityType);
-    when(entityType.getAttribute("memberIds")).thenReturn(pluralAttr);
+    when(entityType.getPluralAttributes()).thenReturn(Set.of(pluralAttr));
+    when(pluralAttr.getName()).thenReturn("memberIds");
     when(pluralAttr.getElementType()).thenReturn(elementType);
     when(elementType.getJavaType()).thenReturn((Class) UUID.class);
     doReturn(collectionPath).when(root).get("memberIds");
@@ -784,6 +1176,21 @@ class Cql2JpaCriteriaTest {
     assertThat(result).isEqualTo(predicate);
   }
 
+  // --- isAllRecords ---
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+    "cql.allRecords=1|true",
+    "cql.allRecords=1 sortby name|true",
+    "name=John|false",
+    "cql.allRecords=1 and name=John|false"
+  })
+  void isAllRecords_positive_detectsQueriesWithoutFilter(String cql, boolean expected) {
+    var criteria = new Cql2JpaCriteria<>(Object.class, entityManager);
+
+    assertThat(criteria.isAllRecords(cql)).isEqualTo(expected);
+  }
+
   // --- Helper types ---
 
   @RespectAccents
@@ -793,11 +1200,32 @@ class Cql2JpaCriteriaTest {
   @RespectAccents
   private static final class RespectAccentsOnlyEntity {}
 
+  private static final class AttributeEntity {
+    private UUID key;
+  }
+
   @RespectCase
   private static final class RespectCaseOnlyEntity {}
 
   private static final class NoAnnotationEntity {}
 
+  private static final class FullTextEntity {
+    @FullTextIndexed
+    private String title;
+  }
+
+  private static final class JsonbEntity {
+    @JsonbIndexed
+    private Map<String, Object> metadata;
+  }
+
+  @RespectCase
+  @RespectAccents
+  private static final class JsonbRespectCaseAndAccentsEntity {
+    @JsonbIndexed
+    private Map<String, Object> metadata;
+  }
+
   private enum SampleEnum {
     VALUE_A, VALUE_B
   }
@@ -0,0 +1,234 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.folio.spring.cql.Cql2NativeSql.CollectionTable;
+import org.folio.spring.cql.Cql2NativeSql.Column;
+import org.folio.spring.cql.Cql2NativeSql.TableMapping;
+import org.folio.spring.cql.domain.EntityCapabilityType;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.PageRequest;
+
+@UnitTest
+class Cql2NativeSqlTest {
+
+  private static final UUID MEMBER = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+  private static final TableMapping TABLE = new TableMapping("item", "id",
+    Map.of("id", new Column("t.id", Integer.class),
+      "name", new Column("t.name", String.class),
+      "age", new Column("t.age", Integer.class),
+      "identifier", new Column("t.identifier", UUID.class),
+      "created", new Column("t.created_date", Timestamp.class),
+      "type", new Column("t.type", EntityCapabilityType.class)),
+    Map.of("memberIds", new CollectionTable("item_member", "item_id", "id", "member_id", UUID.class)));
+
+  private final Cql2NativeSql<Object> cql2NativeSql = new Cql2NativeSql<>(Object.class, TABLE,
+    CqlParserCache.getDefault());
+
+  @Test
+  void toSelectQuery_positive_likeWithWrapperAndSort() {
+    var query = cql2NativeSql.toSelectQuery("name=Jo* and age>20 sortby age/sort.descending name");
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE (lower(f_unaccent(t.name)) "
+      + "LIKE lower(f_unaccent(?1)) ESCAPE '\\' AND t.age > ?2) ORDER BY t.age DESC, lower(f_unaccent(t.name)) ASC");
+    assertThat(query.parameters()).containsExactly("Jo%", 20);
+  }
+
+  @Test
+  void toSelectQuery_positive_sortNullOrdering() {
+    var query = cql2NativeSql.toSelectQuery("age>20 sortby age/sort.descending/sort.nullsLast name/sort.nullsFirst");
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE t.age > ?1 "
+      + "ORDER BY t.age DESC NULLS LAST, lower(f_unaccent(t.name)) ASC NULLS FIRST");
+  }
+
+  @Test
+  void toSelectQuery_positive_respectCaseAndAccents() {
+    var query = new Cql2NativeSql<>(RespectingEntity.class, TABLE, CqlParserCache.getDefault())
+      .toSelectQuery("name<>John");
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE t.name NOT LIKE ?1 ESCAPE '\\'");
+  }
+
+  @Test
+  void toCountQuery_positive_withoutOrderBy() {
+    var query = cql2NativeSql.toCountQuery("cql.allRecords=1 NOT type==DATA sortby name");
+
+    assertThat(query.sql()).isEqualTo("SELECT count(*) FROM item t WHERE (TRUE AND NOT text(t.type) = ?1)");
+    assertThat(query.parameters()).containsExactly("DATA");
+  }
+
+  @Test
+  void toCountQuery_positive_limitedInSubquery() {
+    var query = cql2NativeSql.toCountQuery("age>20 sortby name", 10_001);
+
+    assertThat(query.sql()).isEqualTo("SELECT count(*) FROM (SELECT 1 FROM item t WHERE t.age > ?1 LIMIT ?2) c");
+    assertThat(query.parameters()).containsExactly(20, 10_001);
+  }
+
+  @Test
+  void toSelectQuery_positive_datesRangeAndEmptyTerm() {
+    var query = cql2NativeSql.toSelectQuery("created=2001-01-01:2001-01-03 or name==\"\"");
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE ((t.created_date >= ?1 AND "
+      + "t.created_date < ?2) OR (t.name IS NOT NULL AND t.name = ''))");
+    assertThat(query.parameters()).containsExactly(Timestamp.valueOf(LocalDateTime.parse("2001-01-01T00:00")),
+      Timestamp.valueOf(LocalDateTime.parse("2001-01-03T00:00")));
+  }
+
+  @Test
+  void toSelectQuery_positive_collectionMember() {
+    var query = cql2NativeSql.toSelectQuery("memberIds<>" + MEMBER);
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE NOT EXISTS (SELECT 1 FROM item_member c "
+      + "WHERE c.item_id = t.id AND c.member_id = ?1)");
+    assertThat(query.parameters()).isEqualTo(List.of(MEMBER));
+  }
+
+  @Test
+  void toSelectQuery_positive_sameFieldEqualityOrChain_usesOneArrayParameter() {
+    var ids = Stream.generate(UUID::randomUUID).limit(500).toList();
+    var cql = ids.stream().map(id -> "identifier==" + id).collect(Collectors.joining(" or ")) + " or name=x";
+
+    var query = cql2NativeSql.toSelectQuery(cql);
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE (t.identifier = ANY(?1) OR "
+      + "lower(f_unaccent(t.name)) LIKE lower(f_unaccent(?2)) ESCAPE '\\')");
+    assertThat(query.parameters()).hasSize(2);
+    assertThat((UUID[]) query.parameters().getFirst()).containsExactlyElementsOf(ids);
+  }
+
+  @Test
+  void toSelectQuery_positive_sameFieldStringOrChain_wrapsArrayElements() {
+    var query = cql2NativeSql.toSelectQuery("name==a or name==b");
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM item t WHERE (lower(f_unaccent(t.name)) = "
+      + "ANY(ARRAY(SELECT lower(f_unaccent(v)) FROM unnest(?1) v)))");
+    assertThat((String[]) query.parameters().getFirst()).containsExactly("a", "b");
+  }
+
+  @Test
+  void toSelectQuery_positive_pageRequestsCombinedWithUnionAll() {
+    var query = cql2NativeSql.toSelectQuery(List.of(
+      CqlPageRequest.of("name=a sortby age", PageRequest.of(1, 10)),
+      CqlPageRequest.of("age>20", PageRequest.of(0, 5))));
+
+    assertThat(query.sql()).isEqualTo("(SELECT t.*, 0 AS cql_request FROM item t WHERE lower(f_unaccent(t.name)) "
+      + "LIKE lower(f_unaccent(?1)) ESCAPE '\\' ORDER BY t.age ASC LIMIT ?2 OFFSET ?3) UNION ALL "
+      + "(SELECT t.*, 1 AS cql_request FROM item t WHERE t.age > ?4 LIMIT ?5 OFFSET ?6)");
+    assertThat(query.parameters()).containsExactly("a", 10, 10L, 20, 5, 0L);
+  }
+
+  @Test
+  void toSelectQuery_positive_pageRequestsWithLookAhead() {
+    var query = cql2NativeSql.toSelectQuery(List.of(
+      CqlPageRequest.of("age>20", PageRequest.of(1, 10)),
+      CqlPageRequest.of("age<10", PageRequest.of(0, 5))), 1);
+
+    assertThat(query.parameters()).containsExactly(20, 11, 10L, 10, 6, 0L);
+  }
+
+  @Test
+  void toCountQuery_positive_countsOfAllQueriesInOneRow() {
+    var query = cql2NativeSql.toCountQuery(List.of("name=a", "age>20 sortby name"));
+
+    assertThat(query.sql()).isEqualTo("SELECT (SELECT count(*) FROM item t WHERE lower(f_unaccent(t.name)) "
+      + "LIKE lower(f_unaccent(?1)) ESCAPE '\\') AS count0, (SELECT count(*) FROM item t WHERE t.age > ?2) AS count1");
+    assertThat(query.parameters()).containsExactly("a", 20);
+  }
+
+  @Test
+  void toSelectQuery_positive_tenantSchemasCombinedWithUnionAll() {
+    var query = cql2NativeSql.toSelectQuery("memberIds=" + MEMBER + " sortby name/sort.descending",
+      PageRequest.of(1, 10), List.of("diku_mod", "college_mod"));
+
+    assertThat(query.sql()).isEqualTo("SELECT t.id AS cql_id, cql_tenant FROM ("
+      + "(SELECT t.*, 0 AS cql_tenant FROM diku_mod.item t WHERE EXISTS (SELECT 1 FROM diku_mod.item_member c "
+      + "WHERE c.item_id = t.id AND c.member_id = ?1) ORDER BY lower(f_unaccent(t.name)) DESC, t.id LIMIT ?2) "
+      + "UNION ALL "
+      + "(SELECT t.*, 1 AS cql_tenant FROM college_mod.item t WHERE EXISTS (SELECT 1 FROM college_mod.item_member c "
+      + "WHERE c.item_id = t.id AND c.member_id = ?3) ORDER BY lower(f_unaccent(t.name)) DESC, t.id LIMIT ?4)) t "
+      + "ORDER BY lower(f_unaccent(t.name)) DESC, cql_tenant, t.id LIMIT ?5 OFFSET ?6");
+    assertThat(query.parameters()).containsExactly(MEMBER, 20L, MEMBER, 20L, 10, 10L);
+  }
+
+  @Test
+  void toSelectQuery_positive_unsortedTenantSchemasOrderedById() {
+    var query = cql2NativeSql.toSelectQuery("age>20", PageRequest.of(0, 10), List.of("diku_mod", "college_mod"));
+
+    assertThat(query.sql()).isEqualTo("SELECT t.id AS cql_id, cql_tenant FROM ("
+      + "(SELECT t.*, 0 AS cql_tenant FROM diku_mod.item t WHERE t.age > ?1 ORDER BY t.id LIMIT ?2) UNION ALL "
+      + "(SELECT t.*, 1 AS cql_tenant FROM college_mod.item t WHERE t.age > ?3 ORDER BY t.id LIMIT ?4)) t "
+      + "ORDER BY cql_tenant, t.id LIMIT ?5 OFFSET ?6");
+  }
+
+  @Test
+  void toSelectByIdQuery_positive_rowsOfSchemaById() {
+    var query = cql2NativeSql.toSelectByIdQuery("college_mod", List.of(1, 2));
+
+    assertThat(query.sql()).isEqualTo("SELECT t.* FROM college_mod.item t WHERE t.id IN (?1, ?2)");
+    assertThat(query.parameters()).containsExactly(1, 2);
+  }
+
+  @Test
+  void toCountQuery_positive_sumOfTenantSchemas() {
+    var query = cql2NativeSql.toCountQuery("age>20", List.of("diku_mod", "college_mod"));
+
+    assertThat(query.sql()).isEqualTo("SELECT (SELECT count(*) FROM diku_mod.item t WHERE t.age > ?1) + "
+      + "(SELECT count(*) FROM college_mod.item t WHERE t.age > ?2)");
+    assertThat(query.parameters()).containsExactly(20, 20);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "diku_mod; DROP TABLE item", "\"diku\".item", "1tenant"})
+  void toSelectQuery_negative_invalidSchemaName(String schema) {
+    var schemas = List.of("diku_mod", schema);
+    var pageable = PageRequest.of(0, 10);
+
+    assertThatThrownBy(() -> cql2NativeSql.toSelectQuery("age>20", pageable, schemas))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Invalid schema name: " + schema);
+  }
+
+  @Test
+  void toSelectQuery_negative_pageRequestLeftToCriteriaQuery() {
+    assertThat(cql2NativeSql.toSelectQuery(List.of(CqlPageRequest.of("name=a", PageRequest.of(0, 1)),
+      CqlPageRequest.of("city.name=a", PageRequest.of(0, 1))))).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "city.name==Kyiv",
+    "unknown==1",
+    "age adj 20",
+    "age==abc",
+    "cql.serverChoice=x",
+    "name=John sortby city",
+    "name =/respectCase John"
+  })
+  void toSelectQuery_negative_leftToCriteriaQuery(String cql) {
+    assertThat(cql2NativeSql.toSelectQuery(cql)).isNull();
+  }
+
+  @Test
+  void toSelectQuery_negative_invalidQuery() {
+    assertThatThrownBy(() -> cql2NativeSql.toSelectQuery("!!sortby name"))
+      .isInstanceOf(CqlQueryValidationException.class);
+  }
+
+  @RespectCase
+  @RespectAccents
+  private static class RespectingEntity {
+  }
+}
@@ -0,0 +1,134 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@UnitTest
+class CqlCostPolicyTest {
+
+  private final JpaCqlProperties.CostPolicy settings = new JpaCqlProperties.CostPolicy();
+  private final CqlCostPolicy policy = new CqlCostPolicy(Book.class, settings);
+
+  @Test
+  void check_positive_longOrChainIsOneLevel() {
+    settings.setMaxDepth(2);
+    var cql = IntStream.range(0, 500).mapToObj(i -> "title==" + i).collect(Collectors.joining(" or "));
+
+    assertThatCode(() -> check(cql + " and isbn=1")).doesNotThrowAnyException();
+  }
+
+  @Test
+  void check_negative_tooDeep() {
+    settings.setMaxDepth(2);
+
+    assertThatThrownBy(() -> check("a=1 and (b=2 or (c=3 and d=4))"))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessageContaining("deeper than 2 levels");
+  }
+
+  @Test
+  void check_negative_tooManyTerms() {
+    settings.setMaxTerms(2);
+
+    assertThatThrownBy(() -> check("a=1 or b=2 or c=3"))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessageContaining("more than 2 search terms");
+  }
+
+  @Test
+  void check_negative_tooManyModifiers() {
+    settings.setMaxModifiers(2);
+
+    assertThatCode(() -> check("title =/ignoreCase a or isbn =/masked b")).doesNotThrowAnyException();
+    assertThatThrownBy(() -> check("title =/ignoreCase/masked a or isbn =/masked b"))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessageContaining("more than 2 relation modifiers: 3");
+  }
+
+  @Test
+  void check_positive_limitsDisabledByDefault() {
+    var cql = IntStream.range(0, 5000).mapToObj(i -> "title=/masked " + i).collect(Collectors.joining(" or "));
+    var nested = "a=1" + " and (b=2 or (c=3".repeat(40) + "))".repeat(40);
+
+    assertThat(CqlCostPolicy.isEnabled(settings)).isFalse();
+    assertThatCode(() -> check(cql)).doesNotThrowAnyException();
+    assertThatCode(() -> check(nested)).doesNotThrowAnyException();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"isbn=*123", "author.name=*smith*", "title=abc*", "title=*", "cql.allRecords=1"})
+  void check_positive_leadingWildcardOnIndexedField(String cql) {
+    settings.setIndexedLeadingWildcardsOnly(true);
+
+    assertThatCode(() -> check(cql)).doesNotThrowAnyException();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"title=*abc", "author.biography=?bc", "tags.label=*x"})
+  void check_negative_leadingWildcardOnUnindexedField(String cql) {
+    settings.setIndexedLeadingWildcardsOnly(true);
+
+    assertThatThrownBy(() -> check(cql))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessageContaining("Leading wildcard");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"cql.allRecords=1 sortby id", "title=a sortby isbn/sort.descending",
+                          "title=a sortby publishedDate author.name", "title=a sortby title"})
+  void check_positive_sortByIndexedFieldOrDisabled(String cql) {
+    settings.setIndexedSortOnly(!cql.endsWith("sortby title"));
+
+    assertThatCode(() -> check(cql)).doesNotThrowAnyException();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"title=a sortby title", "title=a sortby unknown", "title=a sortby author.biography"})
+  void check_negative_sortByUnindexedField(String cql) {
+    settings.setIndexedSortOnly(true);
+
+    assertThatThrownBy(() -> check(cql))
+      .isInstanceOf(CqlQueryValidationException.class)
+      .hasMessageContaining("Sorting is only allowed on indexed fields");
+  }
+
+  private void check(String cql) {
+    policy.check(CqlParserCache.getDefault().parse(cql));
+  }
+
+  @Table(indexes = @Index(columnList = "published_date DESC, title"))
+  private static class Book {
+    @Id
+    private Integer id;
+    private String title;
+    @TrigramIndexed
+    @SortIndexed
+    private String isbn;
+    private String publishedDate;
+    private Author author;
+    private List<Tag> tags;
+  }
+
+  private static class Author {
+    @TrigramIndexed
+    @SortIndexed
+    private String name;
+    private String biography;
+  }
+
+  private static class Tag {
+    private String label;
+  }
+}
@@ -0,0 +1,62 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import java.util.Set;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class CqlEntityMetadataTest {
+
+  @Test
+  void of_positive_resolvesAnnotationsAndFieldNames() {
+    var metadata = CqlEntityMetadata.of(Book.class, null);
+
+    assertThat(metadata.isRespectCase()).isTrue();
+    assertThat(metadata.isRespectAccents()).isFalse();
+    assertThat(metadata.getFieldNameIgnoreCase("TITLE")).isEqualTo("title");
+    assertThat(metadata.getFieldNameIgnoreCase("unknown")).isNull();
+    assertThat(metadata.getFullTextIndexed("title").config()).isEqualTo("english");
+    assertThat(metadata.getFullTextIndexed("isbn")).isNull();
+    assertThat(metadata.isTrigramIndexed("isbn")).isTrue();
+    assertThat(metadata.getPluralAttribute("title")).isNull();
+  }
+
+  @Test
+  void getFieldNameIgnoreCase_negative_ambiguousName() {
+    var metadata = CqlEntityMetadata.of(Ambiguous.class, null);
+
+    assertThat(metadata.getFieldNameIgnoreCase("code")).isNull();
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void getPluralAttribute_positive_fromMetamodel() {
+    ManagedType model = mock(ManagedType.class);
+    PluralAttribute attribute = mock(PluralAttribute.class);
+    when(model.getPluralAttributes()).thenReturn(Set.of(attribute));
+    when(attribute.getName()).thenReturn("tags");
+
+    var metadata = CqlEntityMetadata.of(Book.class, model);
+
+    assertThat(metadata.getPluralAttribute("tags")).isSameAs(attribute);
+  }
+
+  @RespectCase
+  private static class Book {
+    @FullTextIndexed(config = "english")
+    private String title;
+    @TrigramIndexed
+    private String isbn;
+  }
+
+  private static class Ambiguous {
+    private String code;
+    private String cODE;
+  }
+}
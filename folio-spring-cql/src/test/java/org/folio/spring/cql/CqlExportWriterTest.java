@@ -0,0 +1,59 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class CqlExportWriterTest {
+
+  private static final UUID ID = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+  private static final Timestamp CREATED = Timestamp.from(Instant.parse("2021-12-20T01:31:31Z"));
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  @Test
+  void writeRow_positive_csvQuotedAsNeeded() throws IOException {
+    var writer = new CqlExportWriter(out, CqlExportFormat.CSV, List.of("id", "name", "created", "age"), 100);
+
+    writer.writeHeader();
+    writer.writeRow(new Object[] {ID, "Doe, \"Jo\"", CREATED, null});
+    var rows = writer.finish();
+
+    assertThat(rows).isEqualTo(1);
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,name,created,age\r\n"
+      + ID + ",\"Doe, \"\"Jo\"\"\",2021-12-20T01:31:31Z,\r\n");
+  }
+
+  @Test
+  void writeRow_positive_jsonLinesEscaped() throws IOException {
+    var writer = new CqlExportWriter(out, CqlExportFormat.JSON_LINES, List.of("name", "age", "alive", "ratio"), 100);
+
+    writer.writeHeader();
+    writer.writeRow(new Object[] {"a\"b\\c\nd\u0001", 20, true, Double.NaN});
+    writer.writeRow(new Object[] {null, 1.5, false, 2});
+    writer.finish();
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+      "{\"name\":\"a\\\"b\\\\c\\nd\\u0001\",\"age\":20,\"alive\":true,\"ratio\":\"NaN\"}\n"
+      + "{\"name\":null,\"age\":1.5,\"alive\":false,\"ratio\":2}\n");
+  }
+
+  @Test
+  void writeRow_positive_flushedEveryFlushSizeRows() throws IOException {
+    var writer = new CqlExportWriter(out, CqlExportFormat.CSV, List.of("id"), 2);
+
+    writer.writeRow(new Object[] {1});
+    assertThat(out.size()).isZero();
+    writer.writeRow(new Object[] {2});
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("1\r\n2\r\n");
+  }
+}
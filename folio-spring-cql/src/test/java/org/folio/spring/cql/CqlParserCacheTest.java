@@ -0,0 +1,44 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class CqlParserCacheTest {
+
+  @Test
+  void parse_positive_sameQueryIsParsedOnce() {
+    var cache = new CqlParserCache(10);
+
+    var first = cache.parse("name=John and age>20");
+    var second = cache.parse("name=John and age>20");
+
+    assertThat(second).isSameAs(first);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void parse_negative_parseFailureIsCached() {
+    var cache = new CqlParserCache(10);
+
+    assertThatThrownBy(() -> cache.parse("(name=John")).isInstanceOf(CqlQueryValidationException.class);
+    assertThatThrownBy(() -> cache.parse("(name=John")).isInstanceOf(CqlQueryValidationException.class);
+
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void clear_positive_removesCachedQueries() {
+    var cache = new CqlParserCache(10);
+    cache.parse("name=John");
+
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+  }
+}
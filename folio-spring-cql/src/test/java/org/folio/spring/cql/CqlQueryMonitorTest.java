@@ -0,0 +1,91 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.folio.spring.cql.CqlQueryMonitor.Stage;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@UnitTest
+@ExtendWith(MockitoExtension.class)
+class CqlQueryMonitorTest {
+
+  private final List<String> recorded = new ArrayList<>();
+  private final CqlQueryMonitor.Recorder recorder =
+    (stage, entity, tenant, shape, nanos) -> recorded.add(String.join("|", stage.getValue(), entity, tenant, shape));
+
+  @Mock
+  private EntityManager em;
+
+  @Test
+  void record_positive_taggedWithEntityTenantAndShape() {
+    var monitor = monitor(() -> "tenant1", new JpaCqlProperties.SlowQuery());
+
+    var result = monitor.record(Stage.PAGE, "name=John* and age>20 sortby age/sort.descending", () -> 42);
+
+    assertThat(result).isEqualTo(42);
+    assertThat(recorded).containsExactly(
+      "page|String|tenant1|(name = ?* and age > ?) sortby age/sort.descending");
+  }
+
+  @Test
+  void record_positive_batchTaggedWithShapesOfAllQueries() {
+    var monitor = monitor(() -> "tenant1", new JpaCqlProperties.SlowQuery());
+    var sqlQuery = new Cql2NativeSql.SqlQuery("SELECT 1", List.of());
+
+    var result = monitor.record(Stage.PAGE, List.of("name=John*", "age>20 sortby age"), sqlQuery, () -> 42);
+
+    assertThat(result).isEqualTo(42);
+    assertThat(recorded).containsExactly("page|String|tenant1|name = ?*; age > ? sortby age");
+  }
+
+  @Test
+  void record_positive_failedStageRecordedWithUnknownTenant() {
+    var monitor = monitor(() -> null, new JpaCqlProperties.SlowQuery());
+
+    assertThatThrownBy(() -> monitor.record(Stage.PARSE, "!!sortby name", () -> {
+      throw new CqlQueryValidationException("invalid");
+    })).isInstanceOf(CqlQueryValidationException.class);
+    assertThat(recorded).containsExactly("parse|String|unknown|invalid");
+  }
+
+  @Test
+  void record_positive_slowCriteriaQueryLoggedWithoutExplain() {
+    var slowQuery = new JpaCqlProperties.SlowQuery();
+    slowQuery.setThreshold(Duration.ZERO);
+    slowQuery.setExplainSampleRate(1);
+    var monitor = monitor(null, slowQuery);
+
+    var result = monitor.record(Stage.COUNT, "name=a", () -> new CqlStatementInspector().inspect("select 1"));
+
+    assertThat(result).isEqualTo("select 1");
+    assertThat(recorded).containsExactly("count|String|unknown|name = ?");
+    verifyNoInteractions(em);
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+    "id==1 or id==2 or id==3 or name=*a*   | (id == ? or name = *?*)",
+    "a=x not b=\"\"                        | (a = ? not b = \"\")",
+    "name=/respectCase J\\*n?             | name =/respectCase ??",
+    "a=1 and (b=2 or c=3) and d=4          | (a = ? and (b = ? or c = ?) and d = ?)"
+  })
+  void shape_positive_searchTermsStripped(String cql, String shape) {
+    assertThat(CqlNodes.shape(CqlParserCache.getDefault().parse(cql))).isEqualTo(shape);
+  }
+
+  private CqlQueryMonitor monitor(CqlTenantIdResolver tenantIdResolver, JpaCqlProperties.SlowQuery slowQuery) {
+    return new CqlQueryMonitor(String.class, em, CqlParserCache.getDefault(), tenantIdResolver, recorder, slowQuery);
+  }
+}
@@ -0,0 +1,99 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@UnitTest
+class CqlResultCacheTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+  private String tenantId = "tenant1";
+  private final CqlResultCache cache = new CqlResultCache(() -> tenantId, CqlParserCache.getDefault(), 100,
+    Duration.ofMinutes(1));
+
+  @Test
+  void get_positive_normalizedQueryHitsCache() {
+    assertThat(load("name == a", 0)).isEqualTo(1);
+    assertThat(load("name==a", 0)).isEqualTo(1);
+    assertThat(load("name==a", 1)).isEqualTo(2);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void get_positive_tenantsKeptApart() {
+    assertThat(load("name==a", 0)).isEqualTo(1);
+    tenantId = "tenant2";
+    assertThat(load("name==a", 0)).isEqualTo(2);
+  }
+
+  @Test
+  void get_negative_noTenant_notCached() {
+    tenantId = null;
+    assertThat(load("name==a", 0)).isEqualTo(1);
+    assertThat(load("name==a", 0)).isEqualTo(2);
+  }
+
+  @Test
+  void invalidate_positive_onlyEntityOfTenant() {
+    load("name==a", 0);
+    cache.get(Integer.class, "count", "name==a", null, () -> 42);
+    tenantId = "tenant2";
+    load("name==a", 0);
+
+    tenantId = "tenant1";
+    cache.invalidate(String.class);
+
+    assertThat(load("name==a", 0)).isEqualTo(3);
+    assertThat(cache.get(Integer.class, "count", "name==a", null, () -> 0)).isEqualTo(42);
+    tenantId = "tenant2";
+    assertThat(load("name==a", 0)).isEqualTo(2);
+  }
+
+  @Test
+  void invalidate_positive_againAfterTransactionCompletes() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.invalidate(String.class);
+      assertThat(load("name==a", 0)).isEqualTo(1);
+      TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(load("name==a", 0)).isEqualTo(2);
+  }
+
+  @Test
+  void get_positive_transactionWithChangeReadsPastCache() throws InterruptedException {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cache.invalidate(String.class);
+      assertThat(load("name==a", 0)).isEqualTo(1);
+      assertThat(load("name==a", 0)).isEqualTo(2);
+
+      var otherRequest = new AtomicInteger();
+      var thread = new Thread(() -> otherRequest.set(load("name==a", 0)));
+      thread.start();
+      thread.join();
+      assertThat(otherRequest.get()).isEqualTo(3);
+      assertThat(load("name==a", 0)).isEqualTo(4);
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(load("name==a", 0)).isEqualTo(5);
+    assertThat(load("name==a", 0)).isEqualTo(5);
+  }
+
+  private int load(String cql, int page) {
+    return cache.get(String.class, "page", cql, PageRequest.of(page, 10), loads::incrementAndGet);
+  }
+}
@@ -0,0 +1,56 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import liquibase.statement.core.RawParameterizedSqlStatement;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class FullTextIndexChangeTest {
+
+  @Test
+  void getSql_positive_indexMatchesQueryExpression() {
+    var change = new FullTextIndexChange();
+    change.setTableName("instance");
+    change.setColumnName("title");
+
+    assertThat(change.getSql()).isEqualTo("CREATE INDEX IF NOT EXISTS instance_title_fts_idx ON instance "
+      + "USING gin (to_tsvector('simple', f_unaccent(title)))");
+  }
+
+  @Test
+  void generateStatements_positive_indexSqlWithoutParameters() {
+    var change = new FullTextIndexChange();
+    change.setTableName("instance");
+    change.setColumnName("title");
+
+    assertThat(change.generateStatements(null)).singleElement()
+      .isInstanceOfSatisfying(RawParameterizedSqlStatement.class, statement -> {
+        assertThat(statement.getSql()).isEqualTo(change.getSql());
+        assertThat(statement.getParameters()).isEmpty();
+      });
+  }
+
+  @Test
+  void getSql_positive_respectAccentsAndCustomConfig() {
+    var change = new FullTextIndexChange();
+    change.setTableName("instance");
+    change.setColumnName("title");
+    change.setIndexName("title_idx");
+    change.setConfig("english");
+    change.setIgnoreAccents(false);
+
+    assertThat(change.getSql())
+      .isEqualTo("CREATE INDEX IF NOT EXISTS title_idx ON instance USING gin (to_tsvector('english', title))");
+  }
+
+  @Test
+  void validate_negative_invalidTableName() {
+    var change = new FullTextIndexChange();
+    change.setTableName("instance; drop table x");
+    change.setColumnName("title");
+
+    assertThat(change.validate(null).hasErrors()).isTrue();
+  }
+}
@@ -0,0 +1,116 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.folio.spring.cql.domain.Person;
+import org.folio.spring.cql.repo.PersonRepository;
+import org.folio.spring.testing.extension.EnablePostgres;
+import org.folio.spring.testing.type.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@IntegrationTest
+@SpringBootTest(properties = "folio.cql.count.concurrent=true")
+@EnablePostgres
+@EnableAutoConfiguration
+@ContextConfiguration(classes = {JpaCqlConcurrentCountIT.ReaderConfiguration.class, JpaCqlConfiguration.class})
+@Sql({"/sql/jpa-cql-general-it-schema.sql",
+      "/sql/jpa-cql-general-test-data.sql",
+      "/sql/jpa-cql-person-test-data.sql"})
+class JpaCqlConcurrentCountIT {
+
+  @Autowired
+  private PersonRepository personRepository;
+
+  @Autowired
+  @Qualifier(JpaCqlConfiguration.CQL_COUNT_EXECUTOR)
+  private Executor countExecutor;
+
+  @Test
+  void testCountExecutorUsesVirtualThreads() {
+    assertThat(countExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+  }
+
+  @Test
+  void testFindByCqlWithConcurrentCount() {
+    var page = personRepository.findByCql("name=J* sortby age", PageRequest.of(0, 4));
+
+    assertThat(page.getContent()).extracting(Person::getAge).containsExactly(20, 22, 26, 30);
+    assertThat(page.getTotalElements()).isEqualTo(9);
+  }
+
+  @Test
+  void testFindByCqlWithConcurrentCountUsesReader() {
+    ReaderConfiguration.READER_CONNECTIONS.set(0);
+
+    var page = personRepository.findByCql("name=J* sortby age", PageRequest.of(0, 4));
+
+    assertThat(page.getTotalElements()).isEqualTo(9);
+    assertThat(ReaderConfiguration.READER_CONNECTIONS).hasValue(2);
+  }
+
+  @Test
+  void testFindByCqlWithConcurrentCountOfLastPage() {
+    var page = personRepository.findByCql("name=J* sortby age", PageRequest.of(2, 4));
+
+    assertThat(page.getContent()).extracting(Person::getAge).containsExactly(45);
+    assertThat(page.getTotalElements()).isEqualTo(9);
+  }
+
+  @Test
+  void testFindByCqlWithConcurrentCountOfFailingPageQuery() {
+    var pageable = PageRequest.of(0, 4);
+
+    assertThatThrownBy(() -> personRepository.findByCql("name prox Jon", pageable))
+      .isInstanceOf(CqlQueryValidationException.class);
+    assertThat(personRepository.findByCql("name=J* sortby age", pageable).getTotalElements()).isEqualTo(9);
+  }
+
+  @Configuration
+  static class ReaderConfiguration {
+
+    static final AtomicInteger READER_CONNECTIONS = new AtomicInteger();
+
+    /**
+     * Route read-only connections like a data source with a read replica, counting the connections of the reader.
+     */
+    @Bean
+    static BeanPostProcessor readerDataSourcePostProcessor() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+            return bean;
+          }
+          var routing = new LazyConnectionDataSourceProxy(dataSource);
+          routing.setReadOnlyDataSource(new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+              READER_CONNECTIONS.incrementAndGet();
+              return super.getConnection();
+            }
+          });
+          return routing;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.folio.spring.cql.domain.Language;
+import org.folio.spring.cql.repo.LanguageRepository;
+import org.folio.spring.testing.type.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the {@link JpaCqlRepositoryIT} suite with CQL queries compiled into native SQL.
+ */
+@IntegrationTest
+@SpringBootTest(properties = {"folio.cql.count.cap=5", "folio.cql.native-sql=true"})
+@Import(JpaCqlNativeRepositoryIT.TenantSchemaConfiguration.class)
+class JpaCqlNativeRepositoryIT extends JpaCqlRepositoryIT {
+
+  @Autowired
+  private LanguageRepository languageRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  @Sql("/sql/jpa-cql-tenants-test-data.sql")
+  void testFindByCqlAcrossTenants() {
+    var page = languageRepository.findByCqlAcrossTenants(List.of("diku", "college"), "cql.allRecords=1 sortby name",
+      PageRequest.of(0, 3));
+
+    assertThat(page.getTotalElements()).isEqualTo(5);
+    assertThat(page.getContent())
+      .extracting(CqlTenantEntity::tenantId, result -> result.entity().getName())
+      .containsExactly(tuple("diku", "English"), tuple("college", "English"), tuple("diku", "French"));
+    assertThat(page.getContent().get(0).entity()).isNotSameAs(page.getContent().get(1).entity());
+  }
+
+  @Test
+  @Sql("/sql/jpa-cql-tenants-test-data.sql")
+  void testFindByCqlAcrossTenantsReadsSameIdOfEachTenant() {
+    var page = languageRepository.findByCqlAcrossTenants(List.of("diku", "college"),
+      "cql.allRecords=1 sortby name/sort.descending", PageRequest.of(0, 3));
+
+    assertThat(page.getContent())
+      .extracting(CqlTenantEntity::tenantId, result -> result.entity().getId(), result -> result.entity().getName())
+      .containsExactly(tuple("college", 2, "Spanish"), tuple("diku", 3, "German"), tuple("diku", 2, "French"));
+  }
+
+  @Test
+  @Sql("/sql/jpa-cql-tenants-test-data.sql")
+  void testFindByCqlAcrossTenantsPagesUnsortedQuery() {
+    var tenants = List.of("diku", "college");
+    var rows = IntStream.range(0, 3)
+      .mapToObj(page -> languageRepository.findByCqlAcrossTenants(tenants, "cql.allRecords=1", PageRequest.of(page, 2)))
+      .flatMap(page -> page.getContent().stream())
+      .toList();
+
+    assertThat(rows)
+      .extracting(CqlTenantEntity::tenantId, result -> result.entity().getId(), result -> result.entity().getName())
+      .containsExactly(tuple("diku", 1, "English"), tuple("diku", 2, "French"), tuple("diku", 3, "German"),
+        tuple("college", 1, "English"), tuple("college", 2, "Spanish"));
+  }
+
+  @Test
+  @Sql(scripts = "/sql/jpa-cql-tenants-test-data.sql", statements = "insert into lang(id, name) values (1, 'Latin')")
+  void testFindByCqlAcrossTenantsKeepsEntitiesOfCaller() {
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      var managed = languageRepository.findById(1).orElseThrow();
+      managed.setName("Latin, changed");
+
+      var page = languageRepository.findByCqlAcrossTenants(List.of("diku", "college"), "id==1", PageRequest.of(0, 3));
+
+      assertThat(page.getContent()).extracting(result -> result.entity().getName())
+        .containsExactly("English", "English");
+      assertThat(page.getContent()).extracting(CqlTenantEntity::entity).doesNotContain(managed);
+    });
+
+    assertThat(languageRepository.findById(1)).get().extracting(Language::getName).isEqualTo("Latin, changed");
+  }
+
+  @TestConfiguration
+  static class TenantSchemaConfiguration {
+
+    @Bean
+    CqlTenantSchemaResolver cqlTenantSchemaResolver() {
+      return tenantId -> tenantId + "_mod";
+    }
+  }
+}
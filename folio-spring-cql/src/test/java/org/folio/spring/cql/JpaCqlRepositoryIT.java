@@ -8,10 +8,15 @@ import static org.springframework.test.context.jdbc.SqlMergeMode.MergeMode.MERGE
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -46,13 +51,17 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlMergeMode;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @IntegrationTest
-@SpringBootTest
+@SpringBootTest(properties = "folio.cql.count.cap=5")
 @EnablePostgres
 @ContextConfiguration(classes = JpaCqlConfiguration.class)
 @EnableAutoConfiguration
@@ -91,6 +100,9 @@ class JpaCqlRepositoryIT {
   @Autowired
   private GroupRepository groupRepository;
 
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
   @Test
   void testTypesOfRepositories() {
     assertThat(personRepository).isInstanceOf(JpaCqlRepository.class);
@@ -317,6 +329,231 @@ class JpaCqlRepositoryIT {
       .contains(age);
   }
 
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testKeysetPagination() {
+    var cql = "name=J* sortby age/sort.descending";
+    var ages = new ArrayList<Integer>();
+    var page = personRepository.findByCql(cql, KeysetPageable.ofSize(4));
+    page.forEach(person -> ages.add(person.getAge()));
+    while (page.hasNext()) {
+      page = personRepository.findByCql(cql, KeysetPageable.of(4, page.getNextToken()));
+      page.forEach(person -> ages.add(person.getAge()));
+    }
+
+    assertThat(ages).containsExactly(45, 40, 40, 33, 32, 30, 26, 22, 20);
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testKeysetPaginationByDottedKeyWithNullOrdering() {
+    var cql = "cql.allRecords=1 sortby city.name/sort.nullsFirst name";
+    var ids = new ArrayList<Integer>();
+    var page = personRepository.findByCql(cql, KeysetPageable.ofSize(2));
+    page.forEach(person -> ids.add(person.getId()));
+    while (page.hasNext()) {
+      page = personRepository.findByCql(cql, KeysetPageable.of(2, page.getNextToken()));
+      page.forEach(person -> ids.add(person.getId()));
+    }
+
+    assertThat(ids).containsExactly(108, 109, 101, 104, 106, 103, 105, 107, 102);
+  }
+
+  @Test
+  void testKeysetPaginationWithTokenOfOtherQuery() {
+    var page = personRepository.findByCql("name=J* sortby age", KeysetPageable.ofSize(1));
+    var pageable = KeysetPageable.of(1, page.getNextToken());
+
+    assertThatThrownBy(() -> personRepository.findByCql("name=John sortby age", pageable))
+      .isInstanceOf(CqlQueryValidationException.class);
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithCappedCount() {
+    var page = (CqlPage<Person>) personRepository.findByCql("name=J*", PageRequest.of(0, 2), CountStrategy.CAPPED);
+
+    assertThat(page.getContent()).hasSize(2);
+    assertThat(page.getTotalElements()).isEqualTo(5);
+    assertThat(page.isTotalExact()).isFalse();
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithCappedCountAfterCap() {
+    var page = personRepository.findByCql("name=J* sortby age", PageRequest.of(3, 2), CountStrategy.CAPPED);
+
+    assertThat(page.getContent()).extracting(Person::getAge).containsExactly(40, 40);
+    assertThat(page.hasNext()).isTrue();
+    assertThat(personRepository.findByCql("name=J* sortby age", PageRequest.of(4, 2), CountStrategy.CAPPED)
+      .hasNext()).isFalse();
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithEstimatedCountOfSmallTable() {
+    var page = (CqlPage<Person>) personRepository.findByCql("cql.allRecords=1", PageRequest.of(0, 2),
+      CountStrategy.ESTIMATED);
+
+    assertThat(page.getTotalElements()).isEqualTo(personRepository.count());
+    assertThat(page.isTotalExact()).isTrue();
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithoutCount() {
+    var slice = personRepository.findByCql("name=J* sortby age", PageRequest.of(2, 4), CountStrategy.NONE);
+
+    assertThat(slice).isNotInstanceOf(Page.class)
+      .extracting(Person::getAge)
+      .containsExactly(45);
+    assertThat(slice.hasNext()).isFalse();
+  }
+
+  @Test
+  void testFindAllByCql() {
+    var pages = personRepository.findAllByCql(List.of(
+      CqlPageRequest.of("name=John sortby age/sort.descending", PageRequest.of(0, 1)),
+      CqlPageRequest.of("name=Jane", PageRequest.of(0, 10)),
+      CqlPageRequest.of("name=Unknown", PageRequest.of(0, 10))));
+
+    assertThat(pages).hasSize(3);
+    assertThat(pages.get(0)).extracting(Person::getAge).containsExactly(40);
+    assertThat(pages.get(0).getTotalElements()).isEqualTo(2);
+    assertThat(pages.get(1)).extracting(Person::getName).containsExactly("Jane");
+    assertThat(pages.get(1).getTotalElements()).isEqualTo(1);
+    assertThat(pages.get(2)).isEmpty();
+  }
+
+  @Test
+  void testFacetsByCql() {
+    var facets = personRepository.facetsByCql("age>20", List.of("name", "deleted"), 5);
+
+    assertThat(facets).containsOnlyKeys("name", "deleted");
+    assertThat(facets.get("name")).containsExactly(new CqlFacet("John", 2));
+    assertThat(facets.get("deleted")).containsExactly(new CqlFacet(false, 2));
+  }
+
+  @Test
+  void testExportByCql() throws IOException {
+    var out = new ByteArrayOutputStream();
+
+    var rows = personRepository.exportByCql("name=John sortby age/sort.descending", List.of("id", "name", "age"),
+      CqlExportFormat.CSV, out);
+
+    assertThat(rows).isEqualTo(2);
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,name,age\r\n103,John,40\r\n102,John,22\r\n");
+  }
+
+  @Test
+  void testDeleteByCql() {
+    var deleted = personRepository.deleteByCql("name=John sortby age");
+
+    assertThat(deleted).isEqualTo(2);
+    assertThat(personRepository.findAll()).extracting(Person::getName).containsExactly("Jane");
+  }
+
+  @Test
+  void testUpdateByCql() {
+    var updated = personRepository.updateByCql("name=John and city.name=Kyiv", Map.of("age", 23));
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(personRepository.findByCql("age==23", PageRequest.of(0, 10)))
+      .extracting(Person::getId)
+      .containsExactly(102);
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithRecordProjection() {
+    var page = personRepository.findByCql("name=J* sortby age", PageRequest.of(0, 3), PersonAge.class);
+
+    assertThat(page.getContent()).extracting(PersonAge::age).containsExactly(20, 22, 26);
+    assertThat(page.getTotalElements()).isEqualTo(9);
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithInterfaceProjection() {
+    var page = personRepository.findByCql("age=40 and name=J* sortby name", PageRequest.of(0, 10),
+      PersonName.class);
+
+    assertThat(page.getContent()).extracting(PersonName::getName).contains("John2");
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testFindByCqlWithFetchPlan() {
+    var page = personRepository.findByCql("name=J* sortby age/sort.descending", PageRequest.of(1, 4),
+      FetchPlan.ofAttributePaths("city"));
+
+    assertThat(page.getContent()).extracting(Person::getAge).containsExactly(32, 30, 26, 22);
+    assertThat(page.getContent()).allSatisfy(person -> assertThat(person.getCity()).isNotNull());
+    assertThat(page.getTotalElements()).isEqualTo(9);
+  }
+
+  @Test
+  void testFindByCqlWithUnknownEntityGraph() {
+    var pageable = PageRequest.of(0, 4);
+    var fetchPlan = FetchPlan.ofEntityGraph("unknown");
+
+    assertThatThrownBy(() -> personRepository.findByCql("name=J*", pageable, fetchPlan))
+      .isInstanceOf(InvalidDataAccessApiUsageException.class);
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testStreamByCql() {
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    var ages = transactionTemplate.execute(status -> {
+      try (var persons = personRepository.streamByCql("name=J* sortby age/sort.descending")) {
+        return persons.map(Person::getAge).toList();
+      }
+    });
+
+    assertThat(ages).containsExactly(45, 40, 40, 33, 32, 30, 26, 22, 20);
+  }
+
+  @Test
+  void testStreamByCqlWithoutTransaction() {
+    assertThatThrownBy(() -> personRepository.streamByCql("name=J*"))
+      .isInstanceOf(InvalidDataAccessApiUsageException.class)
+      .hasMessageStartingWith("streamByCql requires a surrounding transaction");
+  }
+
+  @Test
+  @Sql({
+    "/sql/jpa-cql-person-test-data.sql"
+  })
+  void testStreamByCqlInBatches() {
+    var batches = new ArrayList<List<Integer>>();
+    personRepository.streamByCql("name=J* sortby age", 4,
+      batch -> batches.add(batch.stream().map(Person::getAge).toList()));
+
+    assertThat(batches).containsExactly(List.of(20, 22, 26, 30), List.of(32, 33, 40, 40), List.of(45));
+  }
+
   @Test
   void testSelectAllRecordsByNameEquals() {
     var page = personRepository.findByCql("name=Jane", PageRequest.of(0, 10));
@@ -365,6 +602,15 @@ class JpaCqlRepositoryIT {
       .endsWith(1);
   }
 
+  @Test
+  void testSortByJoinedPath() {
+    var page = personRepository.findByCql("city.name=K* sortby city.name/sort.descending age",
+      PageRequest.of(0, 3));
+    assertThat(page)
+      .extracting(Person::getId)
+      .containsExactly(102, 101, 103);
+  }
+
   @Test
   void testSelectAllRecordsByCityIdNotEquals() {
     var page = personRepository.findByCql("city.id<>2", PageRequest.of(0, 10));
@@ -550,4 +796,12 @@ class JpaCqlRepositoryIT {
       .extracting(Group::getName)
       .containsOnly("Empty Group");
   }
+
+  record PersonAge(String name, int age) {
+  }
+
+  interface PersonName {
+
+    String getName();
+  }
 }
@@ -0,0 +1,104 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.folio.spring.cql.domain.City;
+import org.folio.spring.cql.repo.CachedCityRepository;
+import org.folio.spring.testing.extension.EnablePostgres;
+import org.folio.spring.testing.type.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@IntegrationTest
+@SpringBootTest(properties = {"folio.cql.native-sql=true", "folio.cql.count.strategy=capped",
+                              "folio.cql.count.cap=1"})
+@EnablePostgres
+@EnableAutoConfiguration
+@ContextConfiguration(classes = {JpaCqlResultCacheIT.TenantIdConfiguration.class, JpaCqlConfiguration.class})
+@Sql({"/sql/jpa-cql-general-it-schema.sql", "/sql/jpa-cql-general-test-data.sql"})
+class JpaCqlResultCacheIT {
+
+  @Autowired
+  private CachedCityRepository cityRepository;
+
+  @Autowired
+  private CqlResultCache resultCache;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void testFindByCqlReadsCachedPageInCurrentPersistenceContext() {
+    var pageable = PageRequest.of(0, 10);
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    var hits = resultCache.stats().hitCount();
+    var first = transactionTemplate.execute(status -> {
+      var page = cityRepository.findByCql("name=Kyiv", pageable);
+      page.getContent().getFirst().setName("changed, never saved");
+      status.setRollbackOnly();
+      return page.getContent().getFirst();
+    });
+
+    var second = transactionTemplate.execute(status ->
+      cityRepository.findByCql("name=Kyiv", pageable).getContent().getFirst());
+
+    assertThat(resultCache.stats().hitCount()).isEqualTo(hits + 1);
+    assertThat(second).isNotSameAs(first).extracting(City::getName).isEqualTo("Kyiv");
+  }
+
+  @Test
+  void testUncommittedChangeIsNotCachedForOtherTransactions() {
+    var transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      var city = cityRepository.findById(2).orElseThrow();
+      city.setName("Lviv");
+      cityRepository.save(city);
+      assertThat(cityRepository.countByCql("name=Lviv")).isEqualTo(1);
+
+      var otherTransaction = CompletableFuture.supplyAsync(() ->
+        new TransactionTemplate(transactionManager).execute(other -> cityRepository.countByCql("name=Lviv")));
+      assertThat(otherTransaction.join()).isZero();
+      status.setRollbackOnly();
+    });
+
+    assertThat(cityRepository.countByCql("name=Lviv")).isZero();
+  }
+
+  @Test
+  void testFindAllByCqlCachesPagesOfBatch() {
+    var requests = List.of(CqlPageRequest.of("name=K* sortby name", PageRequest.of(0, 1)),
+      CqlPageRequest.of("name=K* sortby name", PageRequest.of(1, 1)));
+    var hits = resultCache.stats().hitCount();
+
+    var first = cityRepository.findAllByCql(requests);
+    var second = cityRepository.findAllByCql(requests);
+
+    assertThat(resultCache.stats().hitCount()).isEqualTo(hits + 2);
+    for (var pages : List.of(first, second)) {
+      assertThat(pages).extracting(page -> page.getContent().getFirst().getName()).containsExactly("Kharkiv", "Kyiv");
+      // the capped total isn't exact, reading one city more tells that the last page is full but has no next page
+      assertThat(pages).extracting(Page::hasNext).containsExactly(true, false);
+    }
+  }
+
+  @Configuration
+  static class TenantIdConfiguration {
+
+    @Bean
+    CqlTenantIdResolver cqlTenantIdResolver() {
+      return () -> "diku";
+    }
+  }
+}
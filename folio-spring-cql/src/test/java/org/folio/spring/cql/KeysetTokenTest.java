@@ -0,0 +1,49 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class KeysetTokenTest {
+
+  private static final String CQL = "name=John sortby age";
+
+  @Test
+  void decode_positive_returnsEncodedValues() {
+    var uuid = UUID.randomUUID();
+    var token = KeysetToken.encode(CQL, Arrays.asList("a|b,c", 42, null, uuid));
+
+    assertThat(KeysetToken.decode(CQL, token)).containsExactly("a|b,c", "42", null, uuid.toString());
+  }
+
+  @Test
+  void decode_positive_timestampKeepsNanos() {
+    var timestamp = Timestamp.from(Instant.parse("2021-12-25T06:31:31.123456Z"));
+    var token = KeysetToken.encode(CQL, Arrays.asList(timestamp));
+
+    var value = KeysetToken.parse(KeysetToken.decode(CQL, token).getFirst(), Timestamp.class);
+
+    assertThat(value).isEqualTo(timestamp);
+  }
+
+  @Test
+  void decode_negative_otherQuery_throwsCqlQueryValidationException() {
+    var token = KeysetToken.encode(CQL, Arrays.asList(42));
+
+    assertThatThrownBy(() -> KeysetToken.decode("name=Jane sortby age", token))
+      .isInstanceOf(CqlQueryValidationException.class);
+  }
+
+  @Test
+  void decode_negative_malformedToken_throwsCqlQueryValidationException() {
+    assertThatThrownBy(() -> KeysetToken.decode(CQL, "not a token!"))
+      .isInstanceOf(CqlQueryValidationException.class);
+  }
+}
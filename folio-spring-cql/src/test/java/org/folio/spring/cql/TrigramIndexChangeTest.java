@@ -0,0 +1,32 @@
+package org.folio.spring.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.folio.spring.testing.type.UnitTest;
+import org.junit.jupiter.api.Test;
+
+@UnitTest
+class TrigramIndexChangeTest {
+
+  @Test
+  void getSql_positive_indexMatchesDefaultWrapper() {
+    var change = new TrigramIndexChange();
+    change.setTableName("person");
+    change.setColumnName("name");
+
+    assertThat(change.getSql()).isEqualTo("CREATE INDEX IF NOT EXISTS person_name_trgm_idx ON person "
+      + "USING gin ((lower(f_unaccent(name))) public.gin_trgm_ops)");
+  }
+
+  @Test
+  void getSql_positive_respectCaseAndAccents() {
+    var change = new TrigramIndexChange();
+    change.setTableName("person");
+    change.setColumnName("name");
+    change.setIgnoreCase(false);
+    change.setIgnoreAccents(false);
+
+    assertThat(change.getSql()).isEqualTo("CREATE INDEX IF NOT EXISTS person_name_trgm_idx ON person "
+      + "USING gin ((name) public.gin_trgm_ops)");
+  }
+}
@@ -0,0 +1,8 @@
+package org.folio.spring.cql.repo;
+
+import org.folio.spring.cql.CachedCql;
+import org.folio.spring.cql.JpaCqlRepository;
+import org.folio.spring.cql.domain.City;
+
+@CachedCql
+public interface CachedCityRepository extends JpaCqlRepository<City, Integer> {}
@@ -0,0 +1,12 @@
+DROP SCHEMA IF EXISTS diku_mod CASCADE;
+DROP SCHEMA IF EXISTS college_mod CASCADE;
+CREATE SCHEMA diku_mod;
+CREATE SCHEMA college_mod;
+CREATE TABLE diku_mod.lang(id INT PRIMARY KEY, name VARCHAR(255));
+CREATE TABLE college_mod.lang(id INT PRIMARY KEY, name VARCHAR(255));
+
+insert into diku_mod.lang(id, name) values (1, 'English');
+insert into diku_mod.lang(id, name) values (2, 'French');
+insert into diku_mod.lang(id, name) values (3, 'German');
+insert into college_mod.lang(id, name) values (1, 'English');
+insert into college_mod.lang(id, name) values (2, 'Spanish');